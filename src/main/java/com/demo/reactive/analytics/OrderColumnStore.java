@@ -0,0 +1,268 @@
+package com.demo.reactive.analytics;
+
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Column-oriented copy of the analytics rows, laid out in fixed-size segments of primitive arrays.
+ * Writers append under a single lock; readers take a {@link Snapshot} without locking, which sees
+ * every row published before it was taken. String columns are dictionary-encoded.
+ * <p>
+ * Retired rows are tombstoned, folded into per (status, product) rollups and their slots reused by
+ * later inserts, so the segment count tracks the peak number of live rows. Rollups are keyed on
+ * bounded dimensions only and dictionary codes are reference counted, so a customer whose rows have
+ * all been retired no longer costs any memory.
+ */
+public class OrderColumnStore {
+
+    static final int SEGMENT_SHIFT = 16;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    static final byte NO_STATUS = -1;
+    static final byte TOMBSTONE = -2;
+    static final int NO_CODE = -1;
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    /**
+     * Bytes one row occupies across the column arrays.
+     */
+    public static final int ROW_BYTES = Double.BYTES + Integer.BYTES + Long.BYTES + Byte.BYTES
+            + Integer.BYTES + Integer.BYTES;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final Map<String, Integer> rowById = new ConcurrentHashMap<>();
+    private final Dictionary customers = new Dictionary();
+    private final Dictionary products = new Dictionary();
+
+    private volatile Map<RollupKey, RollupBucket> rollups = Map.of();
+    private volatile long retiredCount;
+
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int rowCount;
+    /**
+     * Bumped after every write; a snapshot reads it first so it sees all column writes made before,
+     * including those to a reused slot that do not change {@link #rowCount}.
+     */
+    private volatile long version;
+    private int[] freeRows = new int[0];
+    private int freeCount;
+
+    public synchronized void upsert(Order order) {
+        Integer existing = rowById.get(order.getId());
+        boolean append = existing == null && freeCount == 0;
+        int row = existing != null ? existing : append ? rowCount : freeRows[--freeCount];
+        if (append && (row >>> SEGMENT_SHIFT) >= segments.length) {
+            Segment[] grown = Arrays.copyOf(segments, segments.length + 1);
+            grown[grown.length - 1] = new Segment();
+            segments = grown;
+        }
+
+        Segment segment = segments[row >>> SEGMENT_SHIFT];
+        int i = row & SEGMENT_MASK;
+        segment.amount[i] = order.getTotalAmount();
+        segment.quantity[i] = order.getQuantity();
+        segment.createdAt[i] = toEpochMillis(order.getCreatedAt());
+        int customer = customers.encode(order.getCustomerId());
+        int product = products.encode(order.getProductName());
+        if (existing != null) {
+            customers.release(segment.customer[i]);
+            products.release(segment.product[i]);
+        }
+        segment.customer[i] = customer;
+        segment.product[i] = product;
+        // status last: a reused slot stays a tombstone until every other column holds the new row
+        segment.status[i] = order.getStatus() != null ? (byte) order.getStatus().ordinal() : NO_STATUS;
+
+        if (existing == null) {
+            rowById.put(order.getId(), row);
+        }
+        if (append) {
+            rowCount = row + 1;
+        }
+        version++;
+    }
+
+    /**
+     * Folds the rows of the given orders into the rollups and frees their slots, publishing the
+     * rollups once for the whole batch. Ids without a row are skipped. Returns the number retired.
+     */
+    public synchronized int retire(Collection<String> orderIds) {
+        Map<RollupKey, RollupBucket> next = null;
+        int retired = 0;
+        for (String orderId : orderIds) {
+            Integer row = rowById.remove(orderId);
+            if (row == null) {
+                continue;
+            }
+            Segment segment = segments[row >>> SEGMENT_SHIFT];
+            int i = row & SEGMENT_MASK;
+            RollupKey key = new RollupKey(segment.status[i], segment.product[i]);
+            // tombstone before publishing the rollups: a snapshot that sees the new rollups must not
+            // also count the row, one taken before they are published may briefly miss it
+            segment.status[i] = TOMBSTONE;
+            customers.release(segment.customer[i]);
+
+            if (next == null) {
+                next = new HashMap<>(rollups);
+            }
+            if (!next.containsKey(key)) {
+                products.retain(key.product());
+            }
+            next.merge(key, new RollupBucket(1, segment.amount[i], segment.quantity[i]), RollupBucket::merge);
+            products.release(key.product());
+
+            if (freeCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows, Math.max(16, freeCount * 2));
+            }
+            freeRows[freeCount++] = row;
+            retired++;
+        }
+        if (next != null) {
+            rollups = Map.copyOf(next);
+            retiredCount += retired;
+            version++;
+        }
+        return retired;
+    }
+
+    public int size() {
+        return rowById.size();
+    }
+
+    public long retiredCount() {
+        return retiredCount;
+    }
+
+    int customerCount() {
+        return customers.size();
+    }
+
+    Snapshot snapshot() {
+        long published = version;
+        Map<RollupKey, RollupBucket> retired = rollups;
+        int rows = rowCount;
+        return new Snapshot(published, segments, rows, customers, products, retired);
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIME;
+    }
+
+    static OrderStatus statusOf(byte code) {
+        return code == NO_STATUS ? null : STATUSES[code];
+    }
+
+    static final class Segment {
+        final double[] amount = new double[SEGMENT_SIZE];
+        final int[] quantity = new int[SEGMENT_SIZE];
+        final long[] createdAt = new long[SEGMENT_SIZE];
+        final byte[] status = new byte[SEGMENT_SIZE];
+        final int[] customer = new int[SEGMENT_SIZE];
+        final int[] product = new int[SEGMENT_SIZE];
+    }
+
+    /**
+     * Rows {@code [0, rows)} are stable to read. A row that is upserted again while a query runs may
+     * be observed half-updated; aggregates tolerate that, the store is not a transactional source.
+     * The rollups are an immutable copy replaced once per retired batch. {@code version} is the write
+     * count the snapshot was taken at.
+     */
+    record Snapshot(long version, Segment[] segments, int rows, Dictionary customers, Dictionary products,
+                    Map<RollupKey, RollupBucket> rollups) {
+    }
+
+    record RollupKey(byte status, int product) {
+    }
+
+    record RollupBucket(long count, double amount, long quantity) {
+
+        RollupBucket merge(RollupBucket other) {
+            return new RollupBucket(count + other.count, amount + other.amount, quantity + other.quantity);
+        }
+    }
+
+    /**
+     * Codes are reference counted by the rows and rollups using them and recycled once unused. A
+     * freed code keeps decoding to its old value until reused, so an in-flight snapshot still labels
+     * its rows.
+     */
+    static final class Dictionary {
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[16];
+        private int[] refs = new int[16];
+        private int[] freeCodes = new int[0];
+        private int freeCount;
+        private int size;
+
+        // encode, retain and release are called only while holding the store lock.
+        int encode(String value) {
+            if (value == null) {
+                return NO_CODE;
+            }
+            Integer existing = codes.get(value);
+            if (existing != null) {
+                refs[existing]++;
+                return existing;
+            }
+            String[] current = values;
+            int code;
+            if (freeCount > 0) {
+                code = freeCodes[--freeCount];
+            } else {
+                if (size == current.length) {
+                    current = Arrays.copyOf(current, size * 2);
+                    refs = Arrays.copyOf(refs, size * 2);
+                }
+                code = size++;
+            }
+            current[code] = value;
+            values = current;
+            refs[code] = 1;
+            codes.put(value, code);
+            return code;
+        }
+
+        void retain(int code) {
+            if (code != NO_CODE) {
+                refs[code]++;
+            }
+        }
+
+        void release(int code) {
+            if (code == NO_CODE || --refs[code] > 0) {
+                return;
+            }
+            codes.remove(values[code]);
+            if (freeCount == freeCodes.length) {
+                freeCodes = Arrays.copyOf(freeCodes, Math.max(16, freeCount * 2));
+            }
+            freeCodes[freeCount++] = code;
+        }
+
+        int size() {
+            return codes.size();
+        }
+
+        /**
+         * Lock-free lookup for filters; a value not yet seen has no rows to match.
+         */
+        int lookup(String value) {
+            Integer code = codes.get(value);
+            return code != null ? code : NO_CODE;
+        }
+
+        String decode(int code) {
+            return code == NO_CODE ? null : values[code];
+        }
+    }
+}
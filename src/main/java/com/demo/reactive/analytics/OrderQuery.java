@@ -0,0 +1,67 @@
+package com.demo.reactive.analytics;
+
+import com.demo.reactive.model.OrderStatus;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Value
+@Builder
+public class OrderQuery {
+
+    /**
+     * Empty means any status.
+     */
+    @Singular
+    Set<OrderStatus> statuses;
+
+    String customerId;
+    String productName;
+
+    /**
+     * Inclusive lower bound on {@code createdAt}.
+     */
+    LocalDateTime from;
+
+    /**
+     * Exclusive upper bound on {@code createdAt}.
+     */
+    LocalDateTime to;
+
+    @Builder.Default
+    GroupBy groupBy = GroupBy.NONE;
+
+    @Builder.Default
+    Measure measure = Measure.TOTAL_AMOUNT;
+
+    @Builder.Default
+    Aggregation aggregation = Aggregation.SUM;
+
+    /**
+     * Used only with {@link Aggregation#PERCENTILE}, in the range (0, 100].
+     */
+    @Builder.Default
+    double percentile = 50.0;
+
+    public enum GroupBy {
+        NONE,
+        STATUS,
+        CUSTOMER,
+        PRODUCT
+    }
+
+    public enum Measure {
+        TOTAL_AMOUNT,
+        QUANTITY
+    }
+
+    public enum Aggregation {
+        SUM,
+        COUNT,
+        AVG,
+        PERCENTILE
+    }
+}
@@ -0,0 +1,266 @@
+package com.demo.reactive.analytics;
+
+import com.demo.reactive.model.OrderStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs an {@link OrderQuery} as a fork/join scan over a {@link OrderColumnStore} snapshot.
+ * Each leaf aggregates a contiguous row range into per-group partials which are merged on join.
+ * <p>
+ * Rollups of retired rows have no timestamps, customers or individual values, so they contribute
+ * only to sum/count/avg queries without a time range that neither filter nor group by customer.
+ * Percentiles come from a fixed-size {@link ValueHistogram} per group rather than the raw values.
+ */
+public class ParallelQueryExecutor {
+
+    public static final String ALL_GROUP = "all";
+    public static final String UNKNOWN_GROUP = "unknown";
+
+    static final int LEAF_ROWS = 1 << 15;
+
+    private static final int ANY = -2;
+
+    private final ForkJoinPool pool;
+
+    public ParallelQueryExecutor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public CompletableFuture<Map<String, Double>> submit(OrderColumnStore store, OrderQuery query) {
+        return CompletableFuture.supplyAsync(() -> execute(store, query), pool);
+    }
+
+    public Map<String, Double> execute(OrderColumnStore store, OrderQuery query) {
+        if (query.getAggregation() == OrderQuery.Aggregation.PERCENTILE
+                && !(query.getPercentile() > 0 && query.getPercentile() <= 100)) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]: " + query.getPercentile());
+        }
+        OrderColumnStore.Snapshot snapshot = store.snapshot();
+        Filter filter = Filter.compile(query, snapshot);
+        if (filter == null) {
+            return Map.of();
+        }
+        ScanTask task = new ScanTask(snapshot, query, filter, 0, snapshot.rows());
+        Map<Integer, Accumulator> groups = ForkJoinTask.inForkJoinPool() ? task.invoke() : pool.invoke(task);
+        if (!filter.hasTimeRange() && query.getAggregation() != OrderQuery.Aggregation.PERCENTILE
+                && query.getCustomerId() == null && query.getGroupBy() != OrderQuery.GroupBy.CUSTOMER) {
+            addRollups(groups, query, filter, snapshot);
+        }
+        return finish(groups, query, snapshot);
+    }
+
+    private static void addRollups(Map<Integer, Accumulator> groups,
+                                   OrderQuery query,
+                                   Filter filter,
+                                   OrderColumnStore.Snapshot snapshot) {
+        boolean quantity = query.getMeasure() == OrderQuery.Measure.QUANTITY;
+        snapshot.rollups().forEach((key, bucket) -> {
+            if (!filter.matches(key.status(), ANY, key.product())) {
+                return;
+            }
+            int code = switch (query.getGroupBy()) {
+                case NONE -> 0;
+                case STATUS -> key.status();
+                case PRODUCT -> key.product();
+                case CUSTOMER -> throw new IllegalStateException("rollups carry no customer");
+            };
+            groups.computeIfAbsent(code, c -> new Accumulator(false))
+                    .addAll(bucket.count(), quantity ? bucket.quantity() : bucket.amount());
+        });
+    }
+
+    private static Map<String, Double> finish(Map<Integer, Accumulator> groups,
+                                              OrderQuery query,
+                                              OrderColumnStore.Snapshot snapshot) {
+        Map<String, Double> result = new TreeMap<>();
+        groups.forEach((code, acc) -> result.put(label(code, query.getGroupBy(), snapshot), acc.result(query)));
+        return result;
+    }
+
+    private static String label(int code, OrderQuery.GroupBy groupBy, OrderColumnStore.Snapshot snapshot) {
+        String label = switch (groupBy) {
+            case NONE -> ALL_GROUP;
+            case STATUS -> {
+                OrderStatus status = OrderColumnStore.statusOf((byte) code);
+                yield status != null ? status.name() : null;
+            }
+            case CUSTOMER -> snapshot.customers().decode(code);
+            case PRODUCT -> snapshot.products().decode(code);
+        };
+        return label != null ? label : UNKNOWN_GROUP;
+    }
+
+    private record Filter(int statusMask, int customer, int product, long from, long to) {
+
+        /**
+         * Returns {@code null} when the query names a customer or product the store has never seen.
+         */
+        static Filter compile(OrderQuery query, OrderColumnStore.Snapshot snapshot) {
+            int statusMask = 0;
+            for (OrderStatus status : query.getStatuses()) {
+                statusMask |= 1 << status.ordinal();
+            }
+            int customer = ANY;
+            if (query.getCustomerId() != null) {
+                customer = snapshot.customers().lookup(query.getCustomerId());
+                if (customer == OrderColumnStore.NO_CODE) {
+                    return null;
+                }
+            }
+            int product = ANY;
+            if (query.getProductName() != null) {
+                product = snapshot.products().lookup(query.getProductName());
+                if (product == OrderColumnStore.NO_CODE) {
+                    return null;
+                }
+            }
+            long from = query.getFrom() != null ? OrderColumnStore.toEpochMillis(query.getFrom()) : Long.MIN_VALUE;
+            long to = query.getTo() != null ? OrderColumnStore.toEpochMillis(query.getTo()) : Long.MAX_VALUE;
+            return new Filter(statusMask, customer, product, from, to);
+        }
+
+        boolean hasTimeRange() {
+            return from != Long.MIN_VALUE || to != Long.MAX_VALUE;
+        }
+
+        boolean matches(byte status, int customerCode, int productCode) {
+            if (status == OrderColumnStore.TOMBSTONE) {
+                return false;
+            }
+            if (statusMask != 0 && (status == OrderColumnStore.NO_STATUS || (statusMask & (1 << status)) == 0)) {
+                return false;
+            }
+            return (customer == ANY || customerCode == customer) && (product == ANY || productCode == product);
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Map<Integer, Accumulator>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final OrderColumnStore.Snapshot snapshot;
+        private final OrderQuery query;
+        private final Filter filter;
+        private final int lo;
+        private final int hi;
+
+        ScanTask(OrderColumnStore.Snapshot snapshot, OrderQuery query, Filter filter, int lo, int hi) {
+            this.snapshot = snapshot;
+            this.query = query;
+            this.filter = filter;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Map<Integer, Accumulator> compute() {
+            if (hi - lo <= LEAF_ROWS) {
+                return scan();
+            }
+            int mid = (lo + hi) >>> 1;
+            ScanTask left = new ScanTask(snapshot, query, filter, lo, mid);
+            left.fork();
+            Map<Integer, Accumulator> right = new ScanTask(snapshot, query, filter, mid, hi).compute();
+            Map<Integer, Accumulator> merged = left.join();
+            right.forEach((code, acc) -> merged.merge(code, acc, Accumulator::merge));
+            return merged;
+        }
+
+        private Map<Integer, Accumulator> scan() {
+            Map<Integer, Accumulator> groups = new HashMap<>();
+            boolean keepDistribution = query.getAggregation() == OrderQuery.Aggregation.PERCENTILE;
+            boolean quantity = query.getMeasure() == OrderQuery.Measure.QUANTITY;
+            int lastCode = Integer.MIN_VALUE;
+            Accumulator last = null;
+
+            int row = lo;
+            while (row < hi) {
+                OrderColumnStore.Segment segment = snapshot.segments()[row >>> OrderColumnStore.SEGMENT_SHIFT];
+                int start = row & OrderColumnStore.SEGMENT_MASK;
+                int end = Math.min(OrderColumnStore.SEGMENT_SIZE, start + (hi - row));
+                for (int i = start; i < end; i++) {
+                    if (!matches(segment, i)) {
+                        continue;
+                    }
+                    int code = groupCode(segment, i);
+                    if (last == null || code != lastCode) {
+                        last = groups.computeIfAbsent(code, c -> new Accumulator(keepDistribution));
+                        lastCode = code;
+                    }
+                    last.add(quantity ? segment.quantity[i] : segment.amount[i]);
+                }
+                row += end - start;
+            }
+            return groups;
+        }
+
+        private boolean matches(OrderColumnStore.Segment segment, int i) {
+            if (!filter.matches(segment.status[i], segment.customer[i], segment.product[i])) {
+                return false;
+            }
+            if (filter.hasTimeRange()) {
+                long createdAt = segment.createdAt[i];
+                return createdAt != OrderColumnStore.NO_TIME && createdAt >= filter.from() && createdAt < filter.to();
+            }
+            return true;
+        }
+
+        private int groupCode(OrderColumnStore.Segment segment, int i) {
+            return switch (query.getGroupBy()) {
+                case NONE -> 0;
+                case STATUS -> segment.status[i];
+                case CUSTOMER -> segment.customer[i];
+                case PRODUCT -> segment.product[i];
+            };
+        }
+    }
+
+    private static final class Accumulator {
+
+        private long count;
+        private double sum;
+        private final ValueHistogram histogram;
+
+        Accumulator(boolean keepDistribution) {
+            this.histogram = keepDistribution ? new ValueHistogram() : null;
+        }
+
+        void add(double value) {
+            count++;
+            sum += value;
+            if (histogram != null) {
+                histogram.add(value);
+            }
+        }
+
+        void addAll(long n, double total) {
+            count += n;
+            sum += total;
+        }
+
+        Accumulator merge(Accumulator other) {
+            count += other.count;
+            sum += other.sum;
+            if (histogram != null) {
+                histogram.merge(other.histogram);
+            }
+            return this;
+        }
+
+        double result(OrderQuery query) {
+            return switch (query.getAggregation()) {
+                case SUM -> sum;
+                case COUNT -> count;
+                case AVG -> sum / count;
+                case PERCENTILE -> histogram.percentile(query.getPercentile());
+            };
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.demo.reactive.analytics;
+
+/**
+ * Log-linear histogram for percentile queries: every power of two is split into 64 equal
+ * sub-buckets, so a reported percentile is within 1/64 (about 1.6%) below the true value while the
+ * memory per group stays fixed no matter how many rows it aggregates. Octaves are allocated on
+ * first use, so a group whose values span a few powers of two costs a few hundred bytes each.
+ * The 0th and 100th percentiles are exact.
+ */
+final class ValueHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = -10;
+    private static final int MAX_EXPONENT = 52;
+    private static final double SMALLEST = Math.scalb(1.0, MIN_EXPONENT);
+    private static final long MANTISSA_MASK = (1L << 52) - 1;
+
+    private final long[][] octaves = new long[MAX_EXPONENT - MIN_EXPONENT + 1][];
+    private long underflow;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void add(double value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (!(value >= SMALLEST)) {
+            // zero, negatives and tiny fractions; reported as the minimum
+            underflow++;
+            return;
+        }
+        int exponent = Math.getExponent(value);
+        int subBucket;
+        if (exponent > MAX_EXPONENT) {
+            exponent = MAX_EXPONENT;
+            subBucket = SUB_BUCKETS - 1;
+        } else {
+            subBucket = (int) ((Double.doubleToRawLongBits(value) & MANTISSA_MASK) >>> (52 - SUB_BUCKET_BITS));
+        }
+        long[] buckets = octaves[exponent - MIN_EXPONENT];
+        if (buckets == null) {
+            buckets = new long[SUB_BUCKETS];
+            octaves[exponent - MIN_EXPONENT] = buckets;
+        }
+        buckets[subBucket]++;
+    }
+
+    /**
+     * Folds {@code other} into this histogram; {@code other} must not be used afterwards.
+     */
+    ValueHistogram merge(ValueHistogram other) {
+        count += other.count;
+        underflow += other.underflow;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int i = 0; i < octaves.length; i++) {
+            long[] theirs = other.octaves[i];
+            if (theirs == null) {
+                continue;
+            }
+            long[] ours = octaves[i];
+            if (ours == null) {
+                octaves[i] = theirs;
+                continue;
+            }
+            for (int j = 0; j < SUB_BUCKETS; j++) {
+                ours[j] += theirs[j];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Nearest-rank percentile, {@code p} in (0, 100].
+     */
+    double percentile(double p) {
+        long rank = Math.min(Math.max((long) Math.ceil(p / 100.0 * count), 1), count);
+        if (rank == 1) {
+            return min;
+        }
+        if (rank == count) {
+            return max;
+        }
+        long seen = underflow;
+        if (seen >= rank) {
+            return min;
+        }
+        for (int i = 0; i < octaves.length; i++) {
+            long[] buckets = octaves[i];
+            if (buckets == null) {
+                continue;
+            }
+            for (int j = 0; j < SUB_BUCKETS; j++) {
+                seen += buckets[j];
+                if (seen >= rank) {
+                    double lowerBound = Math.scalb(1.0 + (double) j / SUB_BUCKETS, i + MIN_EXPONENT);
+                    return Math.min(max, Math.max(min, lowerBound));
+                }
+            }
+        }
+        return max;
+    }
+}
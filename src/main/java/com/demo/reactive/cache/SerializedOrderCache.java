@@ -0,0 +1,152 @@
+package com.demo.reactive.cache;
+
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the JSON encoding of terminal (COMPLETED/FAILED) orders in pooled direct buffers so reads
+ * can write the same bytes to every client. Each response gets a retained duplicate of the cached
+ * buffer, so nothing is copied or re-serialized and an invalidation never frees bytes still in flight.
+ * <p>
+ * Entries are dropped by the repository on every mutation and are also checked against the order's
+ * status and {@code updatedAt} on lookup, so an in-place change can never serve stale bytes. An entry is
+ * tagged with the status and {@code updatedAt} read before serializing and is only published if the
+ * order still carries them afterwards, so bytes that may mix two versions are never cached.
+ */
+@Slf4j
+@Component
+public class SerializedOrderCache {
+
+    private static final NettyDataBufferFactory BUFFER_FACTORY =
+            new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+
+    public SerializedOrderCache(ObjectMapper objectMapper,
+                                @Value("${order-cache.enabled:true}") boolean enabled,
+                                @Value("${order-cache.max-entries:100000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Encodes a locally owned order, serving and populating the cache for terminal orders.
+     * The returned buffer is owned by the caller.
+     */
+    public DataBuffer encode(Order order) {
+        OrderStatus status = order.getStatus();
+        LocalDateTime updatedAt = order.getUpdatedAt();
+        if (!enabled || !isImmutable(status)) {
+            return encodeUncached(order);
+        }
+        ByteBuf[] hit = new ByteBuf[1];
+        entries.computeIfPresent(order.getId(), (id, entry) -> {
+            if (!entry.matches(order)) {
+                entry.buffer().release();
+                return null;
+            }
+            // retain under the bin lock so a concurrent invalidate() cannot free the bytes first
+            hit[0] = entry.buffer().retainedDuplicate();
+            return entry;
+        });
+        if (hit[0] != null) {
+            return BUFFER_FACTORY.wrap(hit[0]);
+        }
+        if (entries.size() >= maxEntries) {
+            return encodeUncached(order);
+        }
+
+        ByteBuf serialized = serialize(order);
+        Entry entry = new Entry(serialized, status, updatedAt);
+        if (!entry.matches(order)) {
+            // changed while serializing; serve these bytes once but never cache them
+            return BUFFER_FACTORY.wrap(serialized);
+        }
+        // the caller's reference is taken before the entry is published and can be invalidated
+        ByteBuf response = serialized.retainedDuplicate();
+        if (entries.putIfAbsent(order.getId(), entry) != null) {
+            serialized.release();
+        }
+        return BUFFER_FACTORY.wrap(response);
+    }
+
+    /**
+     * Encodes an order without caching it, e.g. one owned by another shard.
+     */
+    public DataBuffer encodeUncached(Order order) {
+        return BUFFER_FACTORY.wrap(serialize(order));
+    }
+
+    public void invalidate(String orderId) {
+        entries.computeIfPresent(orderId, (id, entry) -> {
+            entry.buffer().release();
+            return null;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns a buffer for a constant fragment such as {@code "["} or {@code "data:"}.
+     */
+    public static DataBuffer fragment(ByteBuf constant) {
+        return BUFFER_FACTORY.wrap(constant.duplicate());
+    }
+
+    public static ByteBuf constant(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return Unpooled.unreleasableBuffer(Unpooled.directBuffer(bytes.length).writeBytes(bytes).asReadOnly());
+    }
+
+    @PreDestroy
+    public void clear() {
+        entries.keySet().forEach(this::invalidate);
+    }
+
+    private ByteBuf serialize(Order order) {
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(256);
+        try (ByteBufOutputStream out = new ByteBufOutputStream(buffer)) {
+            objectMapper.writeValue((OutputStream) out, order);
+            return buffer;
+        } catch (IOException e) {
+            buffer.release();
+            throw new UncheckedIOException("Failed to serialize order " + order.getId(), e);
+        }
+    }
+
+    private static boolean isImmutable(OrderStatus status) {
+        return status == OrderStatus.COMPLETED || status == OrderStatus.FAILED;
+    }
+
+    private record Entry(ByteBuf buffer, OrderStatus status, LocalDateTime updatedAt) {
+
+        boolean matches(Order order) {
+            return status == order.getStatus() && Objects.equals(updatedAt, order.getUpdatedAt());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.demo.reactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "cluster")
+public class ClusterProperties {
+
+    /**
+     * Base URL other nodes use to reach this instance. Must appear in {@link #nodes} when that is set;
+     * startup fails otherwise.
+     */
+    private String self = "http://localhost:8080";
+
+    /**
+     * Static membership list. Empty means single-node mode.
+     */
+    private List<String> nodes = new ArrayList<>();
+
+    private int virtualNodes = 128;
+
+    /**
+     * Immediate retries, with backoff, of a failed order handoff before it is left pending.
+     */
+    private int handoffRetries = 3;
+
+    /**
+     * How often pending handoffs are attempted again.
+     */
+    private Duration handoffRetryInterval = Duration.ofSeconds(10);
+
+    /**
+     * Shared secret every member signs internal requests with. Required when {@link #nodes} lists
+     * more than one member; without it this node refuses forwarded requests and membership changes.
+     */
+    private String secret;
+
+    /**
+     * How far a signed request's timestamp may be from this node's clock before it is refused.
+     */
+    private Duration maxClockSkew = Duration.ofSeconds(30);
+}
@@ -0,0 +1,44 @@
+package com.demo.reactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "pubsub.embedded")
+public class EmbeddedPubSubProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Delay before a publish future completes.
+     */
+    private Duration publishLatency = Duration.ZERO;
+
+    /**
+     * Delay between a successful publish (or a redelivery decision) and delivery to the subscriber.
+     */
+    private Duration deliveryLatency = Duration.ofMillis(5);
+
+    /**
+     * Messages neither acked nor nacked within this window are delivered again.
+     */
+    private Duration ackDeadline = Duration.ofSeconds(10);
+
+    /**
+     * Probability in [0, 1] that a publish fails.
+     */
+    private double errorRate = 0.0;
+
+    /**
+     * Probability in [0, 1] that an acked message is delivered once more anyway (at-least-once).
+     */
+    private double redeliveryRate = 0.0;
+
+    /**
+     * Seed mixed into every fault decision. Runs with the same settings and the same client-numbered
+     * traffic inject the same faults.
+     */
+    private long seed = 42L;
+}
@@ -0,0 +1,9 @@
+package com.demo.reactive.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({ClusterProperties.class, RetentionProperties.class, EmbeddedPubSubProperties.class})
+public class PropertiesConfig {
+}
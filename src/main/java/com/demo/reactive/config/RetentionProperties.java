@@ -0,0 +1,30 @@
+package com.demo.reactive.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "retention")
+public class RetentionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * COMPLETED/FAILED orders whose last update is older than this are expired.
+     */
+    private Duration terminalTtl = Duration.ofHours(24);
+
+    private Duration sweepInterval = Duration.ofSeconds(1);
+
+    /**
+     * Upper bound on entries examined per store in one sweep tick.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Wall-clock budget for one sweep tick across both stores.
+     */
+    private Duration maxSlice = Duration.ofMillis(5);
+}
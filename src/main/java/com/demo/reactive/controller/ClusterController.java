@@ -0,0 +1,47 @@
+package com.demo.reactive.controller;
+
+import com.demo.reactive.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ShardRouter shardRouter;
+
+    @GetMapping("/members")
+    public Mono<Map<String, Object>> getMembers() {
+        return Mono.fromCallable(() -> Map.<String, Object>of(
+                "self", shardRouter.getSelf(),
+                "members", shardRouter.getMembers(),
+                "pendingHandoffs", shardRouter.getPendingHandoffs()));
+    }
+
+    @PutMapping("/members")
+    public Mono<Map<String, Object>> updateMembers(@RequestBody List<String> members) {
+        return rebalanced(shardRouter.updateMembership(members));
+    }
+
+    @PostMapping("/drain")
+    public Mono<Map<String, Object>> drain() {
+        return rebalanced(shardRouter.drain());
+    }
+
+    private Mono<Map<String, Object>> rebalanced(Mono<Long> rebalance) {
+        return rebalance
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e))
+                .map(moved -> Map.<String, Object>of(
+                        "members", shardRouter.getMembers(),
+                        "migratedOrders", moved,
+                        "pendingHandoffs", shardRouter.getPendingHandoffs()));
+    }
+}
@@ -1,43 +1,130 @@
 package com.demo.reactive.controller;
 
+import com.demo.reactive.cache.SerializedOrderCache;
+import com.demo.reactive.messaging.EmbeddedPubSub;
 import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.service.OrderPublisherService;
 import com.demo.reactive.service.OrderService;
+import com.demo.reactive.sharding.ShardRouter;
+import io.netty.buffer.ByteBuf;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final ByteBuf ARRAY_START = SerializedOrderCache.constant("[");
+    private static final ByteBuf ARRAY_SEPARATOR = SerializedOrderCache.constant(",");
+    private static final ByteBuf ARRAY_END = SerializedOrderCache.constant("]");
+    private static final ByteBuf EVENT_START = SerializedOrderCache.constant("data:");
+    private static final ByteBuf EVENT_END = SerializedOrderCache.constant("\n\n");
+
     private final OrderService orderService;
+    private final ShardRouter shardRouter;
+    private final SerializedOrderCache orderCache;
 
     @PostMapping
-    public Mono<Order> createOrder(@RequestBody Order orderRequest) {
-        return orderService.createOrder(orderRequest);
+    public Mono<Order> createOrder(@RequestBody Order orderRequest,
+                                   @RequestHeader(value = ShardRouter.FORWARDED_HEADER, required = false) String forwardedFrom,
+                                   @RequestHeader(value = EmbeddedPubSub.SEQUENCE_HEADER, required = false) Long loadSequence) {
+        if (forwardedFrom == null) {
+            orderRequest.setId(UUID.randomUUID().toString());
+            if (!shardRouter.isLocal(orderRequest.getId())) {
+                return shardRouter.forwardCreate(orderRequest);
+            }
+        } else {
+            checkOwned(orderRequest.getId());
+        }
+        return orderService.createOrder(orderRequest)
+                .contextWrite(context -> loadSequence != null
+                        ? context.put(OrderPublisherService.SEQUENCE_CONTEXT_KEY, loadSequence)
+                        : context);
     }
 
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Order>> getOrderById(@PathVariable String id) {
-        return orderService.findById(id)
+    public Mono<ResponseEntity<DataBuffer>> getOrderById(@PathVariable String id,
+                                                         @RequestHeader(value = ShardRouter.FORWARDED_HEADER, required = false) String forwardedFrom) {
+        Mono<DataBuffer> body = forwardedFrom != null || shardRouter.isLocal(id)
+                ? orderService.findById(id).map(orderCache::encode)
+                : shardRouter.forwardGet(id).map(orderCache::encodeUncached);
+        return body
+                .map(json -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}/status")
+    public Mono<ResponseEntity<Order>> updateStatus(@PathVariable String id,
+                                                    @RequestParam OrderStatus status,
+                                                    @RequestHeader(value = ShardRouter.FORWARDED_HEADER, required = false) String forwardedFrom) {
+        Mono<Order> order = forwardedFrom != null || shardRouter.isLocal(id)
+                ? orderService.updateStatus(id, status)
+                        .switchIfEmpty(Mono.defer(() -> forwardedFrom == null && !shardRouter.isLocal(id)
+                                ? shardRouter.forwardUpdateStatus(id, status)
+                                : Mono.empty()))
+                : shardRouter.forwardUpdateStatus(id, status);
+        return order
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
-    @GetMapping
-    public Flux<Order> getAllOrders() {
-        return orderService.findAll();
+    @PutMapping("/{id}")
+    public Mono<Order> restoreOrder(@PathVariable String id,
+                                    @RequestBody Order order,
+                                    @RequestHeader(ShardRouter.FORWARDED_HEADER) String forwardedFrom) {
+        checkOwned(id);
+        order.setId(id);
+        return orderService.restoreOrder(order);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> getAllOrders(@RequestHeader(value = ShardRouter.FORWARDED_HEADER, required = false) String forwardedFrom) {
+        return Flux.defer(() -> {
+            AtomicBoolean first = new AtomicBoolean(true);
+            return Flux.concat(
+                    Mono.fromSupplier(() -> SerializedOrderCache.fragment(ARRAY_START)),
+                    encodeAcrossShards(forwardedFrom).concatMapIterable(json -> first.getAndSet(false)
+                            ? List.of(json)
+                            : List.of(SerializedOrderCache.fragment(ARRAY_SEPARATOR), json)),
+                    Mono.fromSupplier(() -> SerializedOrderCache.fragment(ARRAY_END)));
+        });
     }
 
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<Order> streamOrders() {
-        return orderService.findAll()
-                .delayElements(Duration.ofMillis(500));
+    public Flux<DataBuffer> streamOrders() {
+        return encodeAcrossShards(null)
+                .delayElements(Duration.ofMillis(500))
+                .concatMapIterable(json -> List.of(
+                        SerializedOrderCache.fragment(EVENT_START),
+                        json,
+                        SerializedOrderCache.fragment(EVENT_END)));
+    }
+
+    private void checkOwned(String id) {
+        if (id == null || !shardRouter.isLocal(id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Order " + id + " is not owned by this node");
+        }
+    }
+
+    private Flux<DataBuffer> encodeAcrossShards(String forwardedFrom) {
+        Flux<DataBuffer> local = orderService.findAll().map(orderCache::encode);
+        if (forwardedFrom != null) {
+            return local;
+        }
+        return Flux.merge(local, shardRouter.findAllRemote().map(orderCache::encodeUncached));
     }
 }
@@ -0,0 +1,223 @@
+package com.demo.reactive.messaging;
+
+import com.demo.reactive.config.EmbeddedPubSubProperties;
+import com.google.cloud.spring.pubsub.support.AcknowledgeablePubsubMessage;
+import com.google.protobuf.ByteString;
+import com.google.pubsub.v1.ProjectSubscriptionName;
+import com.google.pubsub.v1.PubsubMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for one Pub/Sub topic and its subscription, used instead of the emulator for
+ * tests and load runs. Delivery is at-least-once like the real service: nacked messages and messages
+ * not settled within the ack deadline are redelivered. Publish latency, delivery latency, publish
+ * failures and spurious redeliveries are injectable via {@link EmbeddedPubSubProperties}.
+ * <p>
+ * Every fault decision is drawn from the seed mixed with the message's fault key and delivery attempt.
+ * A publisher that numbers its own traffic, such as the load generator via {@link #SEQUENCE_HEADER},
+ * passes that number as the key. The same seed and traffic then inject the same faults on the same
+ * messages however concurrent publishes arrive. Without one the key falls back to the arrival order,
+ * which is only reproducible for sequential publishers.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "pubsub.embedded", name = "enabled", havingValue = "true")
+public class EmbeddedPubSub {
+
+    /**
+     * Request header carrying the client's own sequence number for an order, used as its fault key.
+     */
+    public static final String SEQUENCE_HEADER = "X-Load-Sequence";
+
+    /**
+     * Message attribute the fault key is recorded under when it came from the publisher.
+     */
+    public static final String SEQUENCE_ATTRIBUTE = "loadSequence";
+
+    private final EmbeddedPubSubProperties properties;
+    private final String topicName;
+    private final ProjectSubscriptionName subscription;
+    private final Scheduler scheduler = Schedulers.parallel();
+    private final Sinks.Many<AcknowledgeablePubsubMessage> deliveries = Sinks.many().unicast().onBackpressureBuffer();
+
+    private final AtomicLong messageIds = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong publishFailures = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong redelivered = new AtomicLong();
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong nacked = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    public EmbeddedPubSub(EmbeddedPubSubProperties properties,
+                          @Value("${spring.cloud.gcp.project-id:demo-project}") String projectId,
+                          @Value("${pubsub.topic.orders}") String topicName,
+                          @Value("${pubsub.subscription.orders}") String subscriptionName) {
+        this.properties = properties;
+        this.topicName = topicName;
+        this.subscription = ProjectSubscriptionName.of(projectId, subscriptionName);
+        log.info("Embedded Pub/Sub stand-in active: topic={} subscription={} settings={}",
+                topicName, subscriptionName, properties);
+    }
+
+    public CompletableFuture<String> publish(String topic, String payload) {
+        return publish(topic, payload, null);
+    }
+
+    /**
+     * Publishes with {@code sequence} as the fault key, or the arrival order when it is {@code null}.
+     */
+    public CompletableFuture<String> publish(String topic, String payload, Long sequence) {
+        if (!topicName.equals(topic)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown topic " + topic));
+        }
+        long id = messageIds.incrementAndGet();
+        long faultKey = sequence != null ? sequence : id;
+        boolean fail = chance(properties.getErrorRate(), faultKey, 0);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        schedule(properties.getPublishLatency(), () -> {
+            if (fail) {
+                publishFailures.incrementAndGet();
+                result.completeExceptionally(new IllegalStateException("Injected publish failure"));
+                return;
+            }
+            String messageId = String.valueOf(id);
+            PubsubMessage.Builder message = PubsubMessage.newBuilder()
+                    .setMessageId(messageId)
+                    .setData(ByteString.copyFromUtf8(payload));
+            if (sequence != null) {
+                message.putAttributes(SEQUENCE_ATTRIBUTE, sequence.toString());
+            }
+            published.incrementAndGet();
+            result.complete(messageId);
+            deliver(message.build(), faultKey, 1);
+        });
+        return result;
+    }
+
+    /**
+     * Hot stream of deliveries for the single subscription; messages published before the first
+     * subscriber arrives are buffered.
+     */
+    public Flux<AcknowledgeablePubsubMessage> subscribe(String subscriptionName) {
+        if (!subscription.getSubscription().equals(subscriptionName)) {
+            return Flux.error(new IllegalArgumentException("Unknown subscription " + subscriptionName));
+        }
+        return deliveries.asFlux();
+    }
+
+    public Stats stats() {
+        return new Stats(published.get(), publishFailures.get(), delivered.get(), redelivered.get(),
+                acked.get(), nacked.get(), expired.get());
+    }
+
+    private void deliver(PubsubMessage message, long faultKey, int attempt) {
+        schedule(properties.getDeliveryLatency(), () -> {
+            EmbeddedMessage delivery = new EmbeddedMessage(message, faultKey, attempt);
+            delivered.incrementAndGet();
+            if (attempt > 1) {
+                redelivered.incrementAndGet();
+            }
+            schedule(properties.getAckDeadline(), delivery::expire);
+            deliveries.emitNext(delivery, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        });
+    }
+
+    private void schedule(Duration delay, Runnable task) {
+        if (delay.isZero()) {
+            scheduler.schedule(task);
+        } else {
+            scheduler.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Attempt 0 is the publish itself, later attempts are deliveries of the published message.
+     */
+    private boolean chance(double probability, long faultKey, int attempt) {
+        if (probability <= 0) {
+            return false;
+        }
+        long key = faultKey * 0x9E3779B97F4A7C15L + attempt;
+        return new SplittableRandom(properties.getSeed() ^ key).nextDouble() < probability;
+    }
+
+    public record Stats(long published, long publishFailures, long delivered, long redelivered,
+                        long acked, long nacked, long expired) {
+    }
+
+    private final class EmbeddedMessage implements AcknowledgeablePubsubMessage {
+
+        private final PubsubMessage message;
+        private final long faultKey;
+        private final int attempt;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        EmbeddedMessage(PubsubMessage message, long faultKey, int attempt) {
+            this.message = message;
+            this.faultKey = faultKey;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public ProjectSubscriptionName getProjectSubscriptionName() {
+            return subscription;
+        }
+
+        @Override
+        public PubsubMessage getPubsubMessage() {
+            return message;
+        }
+
+        @Override
+        public String getAckId() {
+            return message.getMessageId() + "-" + attempt;
+        }
+
+        @Override
+        public CompletableFuture<Void> ack() {
+            if (settled.compareAndSet(false, true)) {
+                acked.incrementAndGet();
+                if (chance(properties.getRedeliveryRate(), faultKey, attempt)) {
+                    deliver(message, faultKey, attempt + 1);
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> nack() {
+            if (settled.compareAndSet(false, true)) {
+                nacked.incrementAndGet();
+                deliver(message, faultKey, attempt + 1);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> modifyAckDeadline(int ackDeadlineSeconds) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        void expire() {
+            if (settled.compareAndSet(false, true)) {
+                expired.incrementAndGet();
+                deliver(message, faultKey, attempt + 1);
+            }
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.demo.reactive.repository;
 
+import com.demo.reactive.cache.SerializedOrderCache;
 import com.demo.reactive.model.Order;
 import com.demo.reactive.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Repository
@@ -14,13 +18,32 @@ public class InMemoryOrderRepository {
 
     private final ConcurrentHashMap<String, Order> orders = new ConcurrentHashMap<>();
 
+    @Autowired(required = false)
+    private SerializedOrderCache orderCache;
+
     public Mono<Order> save(Order order) {
         return Mono.fromCallable(() -> {
             orders.put(order.getId(), order);
+            invalidate(order.getId());
             return order;
         });
     }
 
+    /**
+     * Stores {@code order} unless the copy already held was modified later, in which case that copy is
+     * kept. Emits whichever order is stored afterwards.
+     */
+    public Mono<Order> saveIfNewer(Order order) {
+        return Mono.fromCallable(() -> {
+            Order stored = orders.merge(order.getId(), order,
+                    (current, incoming) -> isAfter(lastModified(current), lastModified(incoming)) ? current : incoming);
+            if (stored == order) {
+                invalidate(order.getId());
+            }
+            return stored;
+        });
+    }
+
     public Mono<Order> findById(String id) {
         return Mono.justOrEmpty(orders.get(id));
     }
@@ -31,14 +54,64 @@ public class InMemoryOrderRepository {
 
     public Mono<Order> updateStatus(String id, OrderStatus status) {
         return Mono.fromCallable(() -> {
-            Order order = orders.get(id);
+            Order order = orders.computeIfPresent(id, (key, current) -> {
+                current.setStatus(status);
+                current.setUpdatedAt(LocalDateTime.now());
+                return current;
+            });
             if (order != null) {
-                order.setStatus(status);
-                order.setUpdatedAt(LocalDateTime.now());
-                orders.put(id, order);
-                return order;
+                invalidate(id);
             }
-            return null;
+            return order;
         }).flatMap(order -> order != null ? Mono.just(order) : Mono.empty());
     }
+
+    /**
+     * Removes the order only if its status and {@code updatedAt} still match {@code expected}; the check
+     * and removal are atomic with {@link #updateStatus}. Emits the current order when it has changed,
+     * and nothing when it was removed or is already gone.
+     */
+    public Mono<Order> removeIfUnchanged(Order expected) {
+        return Mono.fromCallable(() -> {
+            Order[] changed = new Order[1];
+            orders.computeIfPresent(expected.getId(), (key, current) -> {
+                if (current.getStatus() == expected.getStatus()
+                        && Objects.equals(current.getUpdatedAt(), expected.getUpdatedAt())) {
+                    return null;
+                }
+                changed[0] = current;
+                return current;
+            });
+            if (changed[0] == null) {
+                invalidate(expected.getId());
+            }
+            return changed[0];
+        });
+    }
+
+    public Iterator<Order> retentionCursor() {
+        return orders.values().iterator();
+    }
+
+    public boolean remove(Order order) {
+        boolean removed = orders.remove(order.getId(), order);
+        if (removed) {
+            invalidate(order.getId());
+        }
+        return removed;
+    }
+
+    private static LocalDateTime lastModified(Order order) {
+        return order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt();
+    }
+
+    private static boolean isAfter(LocalDateTime a, LocalDateTime b) {
+        return a != null && (b == null || a.isAfter(b));
+    }
+
+    private void invalidate(String id) {
+        if (orderCache != null) {
+            orderCache.invalidate(id);
+        }
+    }
 }
@@ -1,35 +1,75 @@
 package com.demo.reactive.service;
 
+import com.demo.reactive.analytics.OrderColumnStore;
+import com.demo.reactive.analytics.OrderQuery;
+import com.demo.reactive.analytics.ParallelQueryExecutor;
 import com.demo.reactive.model.Order;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 @Slf4j
 @Service
 public class BigQueryService {
 
     private final ConcurrentHashMap<String, Order> analyticsStore = new ConcurrentHashMap<>();
+    private final OrderColumnStore columnStore = new OrderColumnStore();
+    private final ParallelQueryExecutor queryExecutor = new ParallelQueryExecutor(ForkJoinPool.commonPool());
 
     public Mono<Boolean> insertOrder(Order order) {
         return Mono.fromCallable(() -> {
-            log.info("[BigQuery Mock] Inserting order {} into analytics", order.getId());
+            log.debug("[BigQuery Mock] Inserting order {} into analytics", order.getId());
             analyticsStore.put(order.getId(), order);
+            columnStore.upsert(order);
             return true;
         });
     }
 
     public Mono<Long> getOrderCount() {
-        return Mono.fromCallable(() -> (long) analyticsStore.size());
+        return Mono.fromCallable(() -> analyticsStore.size() + columnStore.retiredCount());
     }
 
     public Mono<Double> getTotalRevenue() {
-        return Mono.fromCallable(() ->
-                analyticsStore.values().stream()
-                        .mapToDouble(Order::getTotalAmount)
-                        .sum()
-        );
+        return query(OrderQuery.builder().build())
+                .map(result -> result.getOrDefault(ParallelQueryExecutor.ALL_GROUP, 0.0));
+    }
+
+    /**
+     * Runs a filtered, grouped aggregation as a parallel scan on the fork/join pool.
+     * The result maps each group label (or {@code "all"} without grouping) to its aggregate value;
+     * groups with no matching orders are absent.
+     */
+    public Mono<Map<String, Double>> query(OrderQuery query) {
+        return Mono.fromFuture(() -> queryExecutor.submit(columnStore, query));
+    }
+
+    /**
+     * Weakly consistent cursor over the raw analytics rows, for incremental retention sweeps.
+     */
+    public Iterator<Order> retentionCursor() {
+        return analyticsStore.values().iterator();
+    }
+
+    /**
+     * Rolls the orders into the aggregates and drops their raw rows in one batch. Counts and sums not
+     * broken down by customer keep including them; time-ranged, per-customer and percentile queries no
+     * longer see them. Returns the orders actually retired, skipping any replaced or already gone.
+     */
+    public List<Order> retireAll(List<Order> orders) {
+        List<Order> retired = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            if (analyticsStore.remove(order.getId(), order)) {
+                retired.add(order);
+            }
+        }
+        columnStore.retire(retired.stream().map(Order::getId).toList());
+        return retired;
     }
 }
@@ -1,5 +1,6 @@
 package com.demo.reactive.service;
 
+import com.demo.reactive.messaging.EmbeddedPubSub;
 import com.demo.reactive.model.Order;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,38 +12,54 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
 public class OrderPublisherService {
 
+    /**
+     * Reactor context key for the client's sequence number of the order being published, which the
+     * embedded stand-in uses as the fault key.
+     */
+    public static final String SEQUENCE_CONTEXT_KEY = "orders.loadSequence";
+
     private final PubSubTemplate pubSubTemplate;
+    private final EmbeddedPubSub embeddedPubSub;
     private final ObjectMapper objectMapper;
     private final String topicName;
 
     public OrderPublisherService(
             @Autowired(required = false) PubSubTemplate pubSubTemplate,
+            @Autowired(required = false) EmbeddedPubSub embeddedPubSub,
             ObjectMapper objectMapper,
             @Value("${pubsub.topic.orders}") String topicName) {
         this.pubSubTemplate = pubSubTemplate;
+        this.embeddedPubSub = embeddedPubSub;
         this.objectMapper = objectMapper;
         this.topicName = topicName;
     }
 
     public Mono<String> publishOrder(Order order) {
-        if (pubSubTemplate == null) {
+        if (pubSubTemplate == null && embeddedPubSub == null) {
             log.warn("PubSub not available, skipping publish for order {}", order.getId());
             return Mono.just("skipped");
         }
         return Mono.fromCallable(() -> serializeOrder(order))
-                .flatMap(json -> {
+                .flatMap(json -> Mono.deferContextual(context -> {
                     log.info("Publishing order {} to topic {}", order.getId(), topicName);
-                    return Mono.fromFuture(pubSubTemplate.publish(topicName, json));
-                })
+                    Long sequence = context.getOrDefault(SEQUENCE_CONTEXT_KEY, null);
+                    return Mono.fromFuture(publish(json, sequence));
+                }))
                 .timeout(Duration.ofSeconds(5))
                 .doOnSuccess(msgId -> log.info("Published order {} with messageId {}", order.getId(), msgId))
-                .doOnError(e -> log.error("Failed to publish order {}: {}", order.getId(), e.getMessage()))
-                .onErrorReturn("publish-skipped");
+                .doOnError(e -> log.error("Failed to publish order {}: {}", order.getId(), e.getMessage()));
+    }
+
+    private CompletableFuture<String> publish(String json, Long sequence) {
+        return pubSubTemplate != null
+                ? pubSubTemplate.publish(topicName, json)
+                : embeddedPubSub.publish(topicName, json, sequence);
     }
 
     private String serializeOrder(Order order) throws JsonProcessingException {
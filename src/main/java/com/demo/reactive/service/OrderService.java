@@ -22,7 +22,7 @@ public class OrderService {
 
     public Mono<Order> createOrder(Order orderRequest) {
         Order order = Order.builder()
-                .id(UUID.randomUUID().toString())
+                .id(orderRequest.getId() != null ? orderRequest.getId() : UUID.randomUUID().toString())
                 .customerId(orderRequest.getCustomerId())
                 .productName(orderRequest.getProductName())
                 .quantity(orderRequest.getQuantity())
@@ -33,6 +33,8 @@ public class OrderService {
 
         return orderRepository.save(order)
                 .flatMap(saved -> publisherService.publishOrder(saved)
+                        // the order is stored either way; the publisher has already logged the failure
+                        .onErrorResume(e -> Mono.empty())
                         .thenReturn(saved))
                 .doOnSuccess(o -> log.info("Created order {}", o.getId()));
     }
@@ -44,4 +46,22 @@ public class OrderService {
     public Flux<Order> findAll() {
         return orderRepository.findAll();
     }
+
+    public Mono<Order> updateStatus(String id, OrderStatus status) {
+        return orderRepository.updateStatus(id, status);
+    }
+
+    /**
+     * Accepts a copy handed off by another shard, keeping the local one if it was modified later.
+     */
+    public Mono<Order> restoreOrder(Order order) {
+        return orderRepository.saveIfNewer(order)
+                .doOnSuccess(stored -> {
+                    if (stored == order) {
+                        log.info("Restored order {} from another shard", order.getId());
+                    } else {
+                        log.info("Kept newer local copy of order {} over handed-off one", order.getId());
+                    }
+                });
+    }
 }
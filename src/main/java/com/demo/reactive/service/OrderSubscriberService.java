@@ -1,8 +1,10 @@
 package com.demo.reactive.service;
 
+import com.demo.reactive.messaging.EmbeddedPubSub;
 import com.demo.reactive.model.Order;
 import com.demo.reactive.model.OrderStatus;
 import com.demo.reactive.repository.InMemoryOrderRepository;
+import com.demo.reactive.sharding.ShardRouter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.cloud.spring.pubsub.reactive.PubSubReactiveFactory;
 import com.google.cloud.spring.pubsub.support.AcknowledgeablePubsubMessage;
@@ -11,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Slf4j
@@ -20,58 +23,100 @@ public class OrderSubscriberService {
     private final InMemoryOrderRepository orderRepository;
     private final BigQueryService bigQueryService;
     private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
 
     @Autowired(required = false)
     private PubSubReactiveFactory pubSubReactiveFactory;
 
+    @Autowired(required = false)
+    private EmbeddedPubSub embeddedPubSub;
+
     @Value("${pubsub.subscription.orders:}")
     private String subscriptionName;
 
     public OrderSubscriberService(
             InMemoryOrderRepository orderRepository,
             BigQueryService bigQueryService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            ShardRouter shardRouter) {
         this.orderRepository = orderRepository;
         this.bigQueryService = bigQueryService;
         this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
     }
 
     @PostConstruct
     public void startSubscription() {
-        if (pubSubReactiveFactory != null && subscriptionName != null && !subscriptionName.isEmpty()) {
+        if (subscriptionName == null || subscriptionName.isEmpty()) {
+            log.warn("PubSub not configured, skipping subscription");
+        } else if (pubSubReactiveFactory != null) {
             log.info("Starting reactive subscription on {}", subscriptionName);
-            pubSubReactiveFactory.poll(subscriptionName, 1000)
-                    .flatMap(msg -> processMessage(msg)
-                            .doOnSuccess(order -> msg.ack())
-                            .doOnError(e -> {
-                                log.error("Error processing message", e);
-                                msg.nack();
-                            })
-                            .onErrorResume(e -> Mono.empty()))
-                    .subscribe();
+            consume(pubSubReactiveFactory.poll(subscriptionName, 1000));
+        } else if (embeddedPubSub != null) {
+            log.info("Starting embedded subscription on {}", subscriptionName);
+            consume(embeddedPubSub.subscribe(subscriptionName));
         } else {
             log.warn("PubSub not configured, skipping subscription");
         }
     }
 
+    private void consume(Flux<AcknowledgeablePubsubMessage> messages) {
+        messages.flatMap(msg -> processMessage(msg)
+                        .doOnSuccess(order -> msg.ack())
+                        .doOnError(e -> {
+                            log.error("Error processing message", e);
+                            msg.nack();
+                        })
+                        .onErrorResume(e -> Mono.empty()))
+                .subscribe();
+    }
+
     public Mono<Order> processMessage(AcknowledgeablePubsubMessage message) {
         return Mono.fromCallable(() -> {
                     String json = message.getPubsubMessage().getData().toStringUtf8();
                     log.info("Received message: {}", json);
                     return objectMapper.readValue(json, Order.class);
                 })
-                .flatMap(order -> {
-                    log.info("Processing order {}", order.getId());
-                    return orderRepository.updateStatus(order.getId(), OrderStatus.PROCESSING)
-                            .switchIfEmpty(Mono.defer(() -> {
-                                log.warn("Order {} not found, using message data", order.getId());
-                                return Mono.just(order);
-                            }))
-                            .flatMap(this::processOrder)
-                            .flatMap(processed -> orderRepository.updateStatus(processed.getId(), OrderStatus.COMPLETED)
-                                    .defaultIfEmpty(processed))
-                            .flatMap(completed -> bigQueryService.insertOrder(completed).thenReturn(completed));
-                });
+                .flatMap(order -> findCurrent(order.getId())
+                        .filter(OrderSubscriberService::isSettled)
+                        .doOnNext(settled -> log.info("Order {} already {}, ignoring redelivery",
+                                settled.getId(), settled.getStatus()))
+                        .switchIfEmpty(Mono.defer(() -> process(order))));
+    }
+
+    private Mono<Order> process(Order order) {
+        log.info("Processing order {}", order.getId());
+        return updateStatus(order.getId(), OrderStatus.PROCESSING)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("Order {} not found, using message data", order.getId());
+                    return Mono.just(order);
+                }))
+                .flatMap(this::processOrder)
+                .flatMap(processed -> updateStatus(processed.getId(), OrderStatus.COMPLETED)
+                        .defaultIfEmpty(processed))
+                .flatMap(completed -> bigQueryService.insertOrder(completed).thenReturn(completed));
+    }
+
+    private Mono<Order> findCurrent(String id) {
+        return shardRouter.isLocal(id) ? orderRepository.findById(id) : shardRouter.forwardGet(id);
+    }
+
+    /**
+     * Pub/Sub delivers at least once; a redelivered message for an order that already reached a
+     * terminal state must not move it back to PROCESSING or bump its {@code updatedAt}.
+     */
+    private static boolean isSettled(Order order) {
+        return order.getStatus() == OrderStatus.COMPLETED || order.getStatus() == OrderStatus.FAILED;
+    }
+
+    private Mono<Order> updateStatus(String id, OrderStatus status) {
+        return shardRouter.isLocal(id)
+                ? orderRepository.updateStatus(id, status)
+                        // handed off to a new owner between the ownership check and the write
+                        .switchIfEmpty(Mono.defer(() -> shardRouter.isLocal(id)
+                                ? Mono.empty()
+                                : shardRouter.forwardUpdateStatus(id, status)))
+                : shardRouter.forwardUpdateStatus(id, status);
     }
 
     private Mono<Order> processOrder(Order order) {
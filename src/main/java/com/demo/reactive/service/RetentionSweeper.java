@@ -0,0 +1,175 @@
+package com.demo.reactive.service;
+
+import com.demo.reactive.analytics.OrderColumnStore;
+import com.demo.reactive.config.RetentionProperties;
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.repository.InMemoryOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Expires terminal orders from the order and analytics stores in small time-boxed slices on its own
+ * thread. Each store keeps a weakly consistent cursor that survives between ticks, so a full pass is
+ * spread over as many ticks as it needs and no tick holds a lock or scans the whole map.
+ */
+@Slf4j
+@Service
+public class RetentionSweeper {
+
+    private static final long MAP_ENTRY_BYTES = 32;
+    static final long ANALYTICS_ROW_BYTES = MAP_ENTRY_BYTES + OrderColumnStore.ROW_BYTES;
+
+    private final InMemoryOrderRepository orderRepository;
+    private final BigQueryService bigQueryService;
+    private final RetentionProperties properties;
+
+    private final Counter ordersExpired;
+    private final Counter ordersBytesReclaimed;
+    private final Counter analyticsExpired;
+    private final Counter analyticsBytesReclaimed;
+
+    private Iterator<Order> orderCursor;
+    private Iterator<Order> analyticsCursor;
+    private Scheduler scheduler;
+    private Disposable schedule;
+
+    public RetentionSweeper(InMemoryOrderRepository orderRepository,
+                            BigQueryService bigQueryService,
+                            RetentionProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.bigQueryService = bigQueryService;
+        this.properties = properties;
+        this.ordersExpired = meterRegistry.counter("retention.expired", "store", "orders");
+        this.ordersBytesReclaimed = meterRegistry.counter("retention.reclaimed.bytes", "store", "orders");
+        this.analyticsExpired = meterRegistry.counter("retention.expired", "store", "analytics");
+        this.analyticsBytesReclaimed = meterRegistry.counter("retention.reclaimed.bytes", "store", "analytics");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.warn("Retention disabled, stores will grow without bound");
+            return;
+        }
+        log.info("Starting retention sweeper: ttl={} interval={} batch={} slice={}",
+                properties.getTerminalTtl(), properties.getSweepInterval(),
+                properties.getBatchSize(), properties.getMaxSlice());
+        scheduler = Schedulers.newSingle("retention-sweeper");
+        schedule = Flux.interval(properties.getSweepInterval(), scheduler)
+                .subscribe(tick -> {
+                    try {
+                        sweepSlice(LocalDateTime.now());
+                    } catch (RuntimeException e) {
+                        log.error("Retention sweep failed", e);
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+        if (scheduler != null) {
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * Runs one tick and returns the number of entries expired across both stores.
+     */
+    public int sweepSlice(LocalDateTime now) {
+        long deadline = System.nanoTime() + properties.getMaxSlice().toNanos();
+        LocalDateTime cutoff = now.minus(properties.getTerminalTtl());
+
+        if (orderCursor == null || !orderCursor.hasNext()) {
+            orderCursor = orderRepository.retentionCursor();
+        }
+        int expired = sweep(orderCursor, cutoff, deadline,
+                candidates -> candidates.stream().filter(orderRepository::remove).toList(),
+                RetentionSweeper::estimateRetainedBytes, ordersExpired, ordersBytesReclaimed);
+
+        if (analyticsCursor == null || !analyticsCursor.hasNext()) {
+            analyticsCursor = bigQueryService.retentionCursor();
+        }
+        expired += sweep(analyticsCursor, cutoff, deadline, bigQueryService::retireAll,
+                order -> ANALYTICS_ROW_BYTES, analyticsExpired, analyticsBytesReclaimed);
+
+        if (expired > 0) {
+            log.debug("Retention sweep expired {} entries", expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Collects up to one batch of expired entries from the cursor and removes them in a single call,
+     * so a store can apply the whole batch at once.
+     */
+    private int sweep(Iterator<Order> cursor, LocalDateTime cutoff, long deadline,
+                      Function<List<Order>, List<Order>> remover, ToLongFunction<Order> reclaimedBytes,
+                      Counter expiredCounter, Counter bytesCounter) {
+        List<Order> candidates = new ArrayList<>();
+        int examined = 0;
+        while (examined < properties.getBatchSize() && cursor.hasNext()) {
+            Order order = cursor.next();
+            examined++;
+            if (isExpired(order, cutoff)) {
+                candidates.add(order);
+            }
+            if ((examined & 63) == 0 && System.nanoTime() > deadline) {
+                break;
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        List<Order> removed = remover.apply(candidates);
+        for (Order order : removed) {
+            bytesCounter.increment(reclaimedBytes.applyAsLong(order));
+        }
+        expiredCounter.increment(removed.size());
+        return removed.size();
+    }
+
+    static boolean isExpired(Order order, LocalDateTime cutoff) {
+        if (order.getStatus() != OrderStatus.COMPLETED && order.getStatus() != OrderStatus.FAILED) {
+            return false;
+        }
+        LocalDateTime lastTouched = order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt();
+        return lastTouched != null && lastTouched.isBefore(cutoff);
+    }
+
+    /**
+     * Rough shallow-plus-strings size of an order and its map entry on a 64-bit JVM with compressed oops.
+     * Both stores hold the same {@link Order} instances, so the object graph is attributed to the order
+     * store only; the analytics store is credited with its own map entry and column row.
+     */
+    static long estimateRetainedBytes(Order order) {
+        long bytes = MAP_ENTRY_BYTES + 56;
+        bytes += stringBytes(order.getId()) + stringBytes(order.getCustomerId()) + stringBytes(order.getProductName());
+        bytes += order.getCreatedAt() != null ? 72 : 0;
+        bytes += order.getUpdatedAt() != null ? 72 : 0;
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value != null ? 24 + 16 + value.length() : 0;
+    }
+}
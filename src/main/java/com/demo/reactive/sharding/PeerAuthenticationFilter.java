@@ -0,0 +1,75 @@
+package com.demo.reactive.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admits forwarded shard requests and cluster membership changes only with a valid
+ * {@link PeerAuthenticator} signature; everything else passes through untouched.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PeerAuthenticationFilter implements WebFilter {
+
+    private static final String CLUSTER_PATH = "/api/cluster/";
+    private static final int MAX_BODY_BYTES = 256 * 1024;
+
+    private final PeerAuthenticator authenticator;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String sender = request.getHeaders().getFirst(ShardRouter.FORWARDED_HEADER);
+        if (sender == null && !isMembershipChange(request)) {
+            return chain.filter(exchange);
+        }
+        return DataBufferUtils.join(request.getBody(), MAX_BODY_BYTES)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> {
+                    if (!authenticator.verify(request.getHeaders(), request.getMethod(), request.getURI(), sender, body)) {
+                        log.warn("Rejected unauthenticated {} {} (sender {})",
+                                request.getMethod(), request.getURI().getRawPath(), sender);
+                        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                        return exchange.getResponse().setComplete();
+                    }
+                    return chain.filter(exchange.mutate().request(withBody(request, exchange, body)).build());
+                })
+                .onErrorResume(DataBufferLimitException.class, e -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+                    return exchange.getResponse().setComplete();
+                });
+    }
+
+    private static boolean isMembershipChange(ServerHttpRequest request) {
+        return request.getPath().value().startsWith(CLUSTER_PATH) && request.getMethod() != HttpMethod.GET;
+    }
+
+    private static ServerHttpRequest withBody(ServerHttpRequest request, ServerWebExchange exchange, byte[] body) {
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.demo.reactive.sharding;
+
+import com.demo.reactive.config.ClusterProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Signs and verifies internal cluster requests with an HMAC-SHA256 over the method, raw path and
+ * query, sender, timestamp and a digest of the body, keyed by the shared {@code cluster.secret}.
+ * Without a secret nothing verifies, so forwarded requests and membership changes are refused.
+ */
+@Component
+public class PeerAuthenticator {
+
+    public static final String TIMESTAMP_HEADER = "X-Shard-Timestamp";
+    public static final String SIGNATURE_HEADER = "X-Shard-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final Duration maxClockSkew;
+    private final Clock clock;
+
+    @Autowired
+    public PeerAuthenticator(ClusterProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    PeerAuthenticator(ClusterProperties properties, Clock clock) {
+        String secret = properties.getSecret();
+        this.key = secret == null || secret.isBlank()
+                ? null
+                : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.maxClockSkew = properties.getMaxClockSkew();
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    /**
+     * Adds the timestamp and signature headers for a request from {@code sender}, which may be
+     * {@code null} for operator requests such as membership changes.
+     */
+    public void sign(HttpHeaders headers, HttpMethod method, URI uri, String sender, byte[] body) {
+        if (key == null) {
+            throw new IllegalStateException("cluster.secret is not configured");
+        }
+        String timestamp = Long.toString(clock.millis());
+        headers.set(TIMESTAMP_HEADER, timestamp);
+        headers.set(SIGNATURE_HEADER, signature(method, uri, sender, timestamp, body));
+    }
+
+    public boolean verify(HttpHeaders headers, HttpMethod method, URI uri, String sender, byte[] body) {
+        String timestamp = headers.getFirst(TIMESTAMP_HEADER);
+        String signature = headers.getFirst(SIGNATURE_HEADER);
+        if (key == null || timestamp == null || signature == null) {
+            return false;
+        }
+        long sentAt;
+        try {
+            sentAt = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (Math.abs(clock.millis() - sentAt) > maxClockSkew.toMillis()) {
+            return false;
+        }
+        byte[] expected = signature(method, uri, sender, timestamp, body).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String signature(HttpMethod method, URI uri, String sender, String timestamp, byte[] body) {
+        try {
+            String target = uri.getRawQuery() != null ? uri.getRawPath() + "?" + uri.getRawQuery() : uri.getRawPath();
+            String bodyDigest = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+            String canonical = String.join("\n", method.name(), target, sender != null ? sender : "", timestamp, bodyDigest);
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Base64.getEncoder().encodeToString(mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot compute request signature", e);
+        }
+    }
+}
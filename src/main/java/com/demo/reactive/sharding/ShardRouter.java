@@ -0,0 +1,329 @@
+package com.demo.reactive.sharding;
+
+import com.demo.reactive.config.ClusterProperties;
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.repository.InMemoryOrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class ShardRouter {
+
+    /**
+     * Marks a request as already routed; the receiving node serves it locally and never re-forwards.
+     * Only honoured together with a valid {@link PeerAuthenticator} signature.
+     */
+    public static final String FORWARDED_HEADER = "X-Shard-Forwarded-From";
+
+    private static final String ORDERS_PATH = "/api/orders";
+
+    private final InMemoryOrderRepository orderRepository;
+    private final WebClient webClient;
+    private final PeerAuthenticator authenticator;
+    private final ObjectMapper objectMapper;
+    private final String self;
+    private final int virtualNodes;
+    private final int handoffRetries;
+    private final Duration handoffRetryInterval;
+
+    private final Set<String> handoff = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingHandoffs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Membership changes and handoff retries, applied one at a time in arrival order.
+     */
+    private final Sinks.Many<Mono<Void>> rebalances = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable rebalanceLoop;
+
+    private volatile ConsistentHashRing ring;
+    private Disposable handoffRetry;
+
+    public ShardRouter(ClusterProperties properties,
+                       InMemoryOrderRepository orderRepository,
+                       WebClient.Builder webClientBuilder,
+                       PeerAuthenticator authenticator,
+                       ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.webClient = webClientBuilder.build();
+        this.authenticator = authenticator;
+        this.objectMapper = objectMapper;
+        this.self = properties.getSelf();
+        this.virtualNodes = properties.getVirtualNodes();
+        this.handoffRetries = properties.getHandoffRetries();
+        this.handoffRetryInterval = properties.getHandoffRetryInterval();
+        if (properties.getNodes().size() > 1 && !authenticator.isEnabled()) {
+            throw new IllegalStateException("cluster.secret is required when cluster.nodes has more than one member");
+        }
+        List<String> nodes = properties.getNodes();
+        if (nodes != null && !nodes.isEmpty() && !nodes.contains(self)) {
+            throw new IllegalArgumentException("Cluster members " + nodes + " do not include self " + self);
+        }
+        this.ring = new ConsistentHashRing(nodes == null || nodes.isEmpty() ? List.of(self) : nodes, virtualNodes);
+        this.rebalanceLoop = rebalances.asFlux().concatMap(task -> task).subscribe();
+        log.info("Shard ring initialised with members {} (self={})", ring.getNodes(), self);
+    }
+
+    @PostConstruct
+    public void start() {
+        handoffRetry = Flux.interval(handoffRetryInterval)
+                .filter(tick -> !pendingHandoffs.isEmpty())
+                .concatMap(tick -> serialized(retryPendingHandoffs()))
+                .subscribe(moved -> log.info("Retried handoffs moved {} orders, {} still pending",
+                        moved, pendingHandoffs.size()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (handoffRetry != null) {
+            handoffRetry.dispose();
+        }
+        rebalanceLoop.dispose();
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public List<String> getMembers() {
+        return ring.getNodes();
+    }
+
+    /**
+     * Number of orders this node still holds for another owner because their handoff failed.
+     */
+    public int getPendingHandoffs() {
+        return pendingHandoffs.size();
+    }
+
+    public String ownerOf(String orderId) {
+        return ring.nodeFor(orderId);
+    }
+
+    /**
+     * True when this node owns the id, or still holds it while handing it off to a new owner.
+     */
+    public boolean isLocal(String orderId) {
+        return handoff.contains(orderId) || self.equals(ownerOf(orderId));
+    }
+
+    public Mono<Order> forwardCreate(Order order) {
+        String owner = ownerOf(order.getId());
+        log.debug("Forwarding create of order {} to {}", order.getId(), owner);
+        return peerRequest(HttpMethod.POST, owner, ORDERS_PATH, order)
+                .retrieve()
+                .bodyToMono(Order.class);
+    }
+
+    public Mono<Order> forwardGet(String orderId) {
+        String owner = ownerOf(orderId);
+        log.debug("Forwarding read of order {} to {}", orderId, owner);
+        return peerRequest(HttpMethod.GET, owner, ORDERS_PATH + "/{id}", null, orderId)
+                .retrieve()
+                .bodyToMono(Order.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    public Mono<Order> forwardUpdateStatus(String orderId, OrderStatus status) {
+        String owner = ownerOf(orderId);
+        log.debug("Forwarding status {} of order {} to {}", status, orderId, owner);
+        return peerRequest(HttpMethod.PUT, owner, ORDERS_PATH + "/{id}/status?status={status}", null, orderId, status)
+                .retrieve()
+                .bodyToMono(Order.class)
+                // the owner may still be receiving the order from a rebalance
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(100))
+                        .filter(WebClientResponseException.NotFound.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    public Flux<Order> findAllRemote() {
+        return Flux.fromIterable(getMembers())
+                .filter(node -> !node.equals(self))
+                .flatMap(node -> peerRequest(HttpMethod.GET, node, ORDERS_PATH, null)
+                        .retrieve()
+                        .bodyToFlux(Order.class)
+                        .onErrorResume(e -> {
+                            log.warn("Node {} unavailable for scatter read: {}", node, e.getMessage());
+                            return Flux.empty();
+                        }));
+    }
+
+    /**
+     * Swaps in a new ring and hands every local order that now belongs elsewhere to its new owner.
+     * Until an order's handoff is acknowledged this node keeps serving it, and it is removed locally
+     * only if it did not change after the copy was sent; otherwise the latest version is sent again.
+     * Orders whose handoff still fails after retrying stay pending and are retried periodically.
+     * {@code nodes} may leave out this node, which then hands off everything it holds. Changes are
+     * applied one at a time. Emits the number of orders moved.
+     */
+    public Mono<Long> updateMembership(List<String> nodes) {
+        return serialized(rebalance(nodes));
+    }
+
+    /**
+     * Removes this node from its own membership and hands every local order to the remaining members.
+     * The other members should already have been given a membership without this node, or they
+     * refuse the handoffs until they are.
+     */
+    public Mono<Long> drain() {
+        return serialized(Mono.defer(() -> {
+            List<String> remaining = getMembers().stream()
+                    .filter(node -> !node.equals(self))
+                    .toList();
+            if (remaining.isEmpty()) {
+                return Mono.error(new IllegalArgumentException("Cannot drain " + self + ", it is the last member"));
+            }
+            return rebalance(remaining);
+        }));
+    }
+
+    private Mono<Long> rebalance(List<String> nodes) {
+        return Mono.fromCallable(() -> buildRing(nodes))
+                .flatMap(next -> orderRepository.findAll()
+                        .map(Order::getId)
+                        .filter(id -> !self.equals(next.nodeFor(id)))
+                        .doOnNext(handoff::add)
+                        .then(Mono.fromCallable(() -> {
+                            ring = next;
+                            log.info("Shard membership changed to {}", next.getNodes());
+                            return next;
+                        })))
+                .flatMap(newRing -> orderRepository.findAll()
+                        .filter(order -> !self.equals(ownerOf(order.getId())))
+                        .doOnNext(order -> handoff.add(order.getId()))
+                        .flatMap(this::handOff)
+                        .count())
+                .doOnSuccess(moved -> log.info("Rebalance moved {} orders off {}", moved, self));
+    }
+
+    /**
+     * Hands off every pending order that still belongs elsewhere and drops the ones that no longer
+     * do, e.g. because membership changed back or the order was removed. Emits the number moved.
+     */
+    Mono<Long> retryPendingHandoffs() {
+        return Flux.fromIterable(List.copyOf(pendingHandoffs))
+                .flatMap(id -> orderRepository.findById(id)
+                        .filter(order -> !self.equals(ownerOf(id)))
+                        .switchIfEmpty(Mono.fromRunnable(() -> {
+                            pendingHandoffs.remove(id);
+                            handoff.remove(id);
+                        }))
+                        .flatMap(this::handOff))
+                .count();
+    }
+
+    private Mono<Order> handOff(Order order) {
+        String id = order.getId();
+        String owner = ownerOf(id);
+        return migrate(order)
+                .doOnSuccess(moved -> {
+                    handoff.remove(id);
+                    pendingHandoffs.remove(id);
+                })
+                .onErrorResume(e -> {
+                    pendingHandoffs.add(id);
+                    log.warn("Failed to hand off order {} to {}, keeping it here until a retry succeeds: {}",
+                            id, owner, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Order> migrate(Order order) {
+        Order copy = order.toBuilder().build();
+        return peerRequest(HttpMethod.PUT, ownerOf(order.getId()), ORDERS_PATH + "/{id}", copy, order.getId())
+                .retrieve()
+                .toBodilessEntity()
+                // the new owner may not have applied the same membership yet and answer 409
+                .retryWhen(Retry.backoff(handoffRetries, Duration.ofMillis(100))
+                        .filter(ShardRouter::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .then(orderRepository.removeIfUnchanged(copy))
+                .flatMap(changed -> {
+                    log.debug("Order {} changed during handoff, sending latest version", changed.getId());
+                    return migrate(changed);
+                })
+                .defaultIfEmpty(copy);
+    }
+
+    /**
+     * Builds a forwarded request to {@code node}, signed over its exact URI and JSON body.
+     */
+    private WebClient.RequestHeadersSpec<?> peerRequest(HttpMethod method, String node, String path, Object body,
+                                                         Object... uriVariables) {
+        URI uri = UriComponentsBuilder.fromUriString(node + path).buildAndExpand(uriVariables).encode().toUri();
+        byte[] json = body != null ? toJson(body) : new byte[0];
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(headers -> {
+                    headers.set(FORWARDED_HEADER, self);
+                    authenticator.sign(headers, method, uri, self, json);
+                });
+        return body != null ? request.contentType(MediaType.APPLICATION_JSON).bodyValue(json) : request;
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + body, e);
+        }
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return !(error instanceof WebClientResponseException response)
+                || response.getStatusCode().is5xxServerError()
+                || response.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Queues {@code work} behind any membership change already in progress and relays its result.
+     */
+    private <T> Mono<T> serialized(Mono<T> work) {
+        return Mono.defer(() -> {
+            Sinks.One<T> result = Sinks.one();
+            Mono<Void> task = work
+                    .doOnSuccess(value -> {
+                        if (value != null) {
+                            result.tryEmitValue(value);
+                        } else {
+                            result.tryEmitEmpty();
+                        }
+                    })
+                    .doOnError(result::tryEmitError)
+                    .onErrorComplete()
+                    .then();
+            rebalances.emitNext(task, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+            return result.asMono();
+        });
+    }
+
+    private ConsistentHashRing buildRing(List<String> nodes) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new IllegalArgumentException("Cluster membership must list at least one member");
+        }
+        return new ConsistentHashRing(nodes, virtualNodes);
+    }
+}
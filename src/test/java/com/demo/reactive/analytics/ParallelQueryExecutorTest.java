@@ -0,0 +1,141 @@
+package com.demo.reactive.analytics;
+
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelQueryExecutorTest {
+
+    private static final int ROWS = OrderColumnStore.SEGMENT_SIZE * 3 + 123;
+
+    private OrderColumnStore store;
+    private ParallelQueryExecutor executor;
+    private List<Order> orders;
+
+    @BeforeEach
+    void setUp() {
+        store = new OrderColumnStore();
+        executor = new ParallelQueryExecutor(ForkJoinPool.commonPool());
+        orders = new ArrayList<>();
+        OrderStatus[] statuses = OrderStatus.values();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < ROWS; i++) {
+            Order order = Order.builder()
+                    .id("order-" + i)
+                    .customerId("C" + (i % 7))
+                    .productName("P" + (i % 3))
+                    .quantity(i % 10)
+                    .totalAmount(i % 1000)
+                    .status(statuses[i % statuses.length])
+                    .createdAt(base.plusMinutes(i))
+                    .build();
+            orders.add(order);
+            store.upsert(order);
+        }
+    }
+
+    @Test
+    void execute_shouldMatchSequentialScan_acrossSegments() {
+        OrderQuery query = OrderQuery.builder()
+                .status(OrderStatus.COMPLETED)
+                .status(OrderStatus.PROCESSING)
+                .groupBy(OrderQuery.GroupBy.PRODUCT)
+                .measure(OrderQuery.Measure.QUANTITY)
+                .build();
+
+        Map<String, Double> expected = orders.stream()
+                .filter(o -> o.getStatus() == OrderStatus.COMPLETED || o.getStatus() == OrderStatus.PROCESSING)
+                .collect(Collectors.groupingBy(Order::getProductName,
+                        Collectors.summingDouble(Order::getQuantity)));
+
+        assertEquals(expected, executor.execute(store, query));
+    }
+
+    @Test
+    void execute_shouldSeeUpsertedValues() {
+        Order first = orders.get(0);
+        first.setTotalAmount(1_000_000.0);
+        store.upsert(first);
+
+        OrderQuery query = OrderQuery.builder()
+                .customerId(first.getCustomerId())
+                .productName(first.getProductName())
+                .aggregation(OrderQuery.Aggregation.PERCENTILE)
+                .percentile(100)
+                .build();
+
+        assertEquals(ROWS, store.size());
+        assertEquals(Map.of(ParallelQueryExecutor.ALL_GROUP, 1_000_000.0), executor.execute(store, query));
+    }
+
+    @Test
+    void execute_shouldRejectOutOfRangePercentile() {
+        OrderQuery query = OrderQuery.builder()
+                .aggregation(OrderQuery.Aggregation.PERCENTILE)
+                .percentile(0)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(store, query));
+    }
+
+    @Test
+    void retire_shouldRollUpWithoutCustomer_andFreeCustomerCodes() {
+        OrderColumnStore small = new OrderColumnStore();
+        for (int i = 0; i < 100; i++) {
+            small.upsert(Order.builder()
+                    .id("retired-" + i)
+                    .customerId("one-off-" + i)
+                    .productName("P" + (i % 2))
+                    .totalAmount(10.0)
+                    .status(OrderStatus.COMPLETED)
+                    .build());
+        }
+        OrderColumnStore.Snapshot before = small.snapshot();
+
+        List<String> firstBatch = IntStream.range(0, 50).mapToObj(i -> "retired-" + i).toList();
+        List<String> secondBatch = IntStream.range(50, 101).mapToObj(i -> "retired-" + i).toList();
+        assertEquals(50, small.retire(firstBatch));
+        assertEquals(50, small.retire(secondBatch));
+        assertEquals(0, small.retire(firstBatch));
+        assertEquals(100, small.retiredCount());
+
+        assertEquals(0, small.customerCount());
+        assertEquals(2, small.snapshot().rollups().size());
+        assertTrue(before.rollups().isEmpty());
+        assertEquals(Map.of("P0", 500.0, "P1", 500.0),
+                executor.execute(small, OrderQuery.builder().groupBy(OrderQuery.GroupBy.PRODUCT).build()));
+        assertEquals(Map.of(), executor.execute(small,
+                OrderQuery.builder().groupBy(OrderQuery.GroupBy.CUSTOMER).build()));
+    }
+
+    @Test
+    void upsertIntoReusedSlot_shouldBePublishedToLaterSnapshots() {
+        OrderColumnStore small = new OrderColumnStore();
+        small.upsert(Order.builder().id("old").customerId("C1").productName("Old")
+                .totalAmount(1.0).status(OrderStatus.COMPLETED).build());
+        small.retire(List.of("old"));
+        OrderColumnStore.Snapshot before = small.snapshot();
+
+        small.upsert(Order.builder().id("new").customerId("C2").productName("New")
+                .totalAmount(7.0).status(OrderStatus.CREATED).build());
+        OrderColumnStore.Snapshot after = small.snapshot();
+
+        assertEquals(before.rows(), after.rows(), "the freed slot is reused, so rowCount does not move");
+        assertTrue(after.version() > before.version());
+        assertEquals(Map.of("C2", 7.0), executor.execute(small, OrderQuery.builder()
+                .status(OrderStatus.CREATED)
+                .groupBy(OrderQuery.GroupBy.CUSTOMER)
+                .build()));
+    }
+}
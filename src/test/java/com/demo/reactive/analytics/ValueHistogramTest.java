@@ -0,0 +1,46 @@
+package com.demo.reactive.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueHistogramTest {
+
+    @Test
+    void percentile_shouldStayWithinBucketPrecision_ofExactNearestRank() {
+        SplittableRandom random = new SplittableRandom(7);
+        double[] values = new double[100_000];
+        ValueHistogram left = new ValueHistogram();
+        ValueHistogram right = new ValueHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextDouble() * 12);
+            (i % 2 == 0 ? left : right).add(values[i]);
+        }
+        ValueHistogram histogram = left.merge(right);
+        Arrays.sort(values);
+
+        for (double p : new double[]{1, 25, 50, 90, 99, 99.9}) {
+            double exact = values[(int) Math.ceil(p / 100.0 * values.length) - 1];
+            double estimate = histogram.percentile(p);
+            assertTrue(estimate <= exact && estimate >= exact * (1 - 1.0 / 64),
+                    "p" + p + ": exact " + exact + ", estimate " + estimate);
+        }
+        assertEquals(values[values.length - 1], histogram.percentile(100));
+    }
+
+    @Test
+    void percentile_shouldBeExact_forSmallIntegersAndZero() {
+        ValueHistogram histogram = new ValueHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.add(i);
+        }
+
+        assertEquals(0.0, histogram.percentile(1));
+        assertEquals(49.0, histogram.percentile(50));
+        assertEquals(94.0, histogram.percentile(95));
+        assertEquals(99.0, histogram.percentile(100));
+    }
+}
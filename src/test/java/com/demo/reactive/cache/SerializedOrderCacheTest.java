@@ -0,0 +1,182 @@
+package com.demo.reactive.cache;
+
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.repository.InMemoryOrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedOrderCacheTest {
+
+    private ObjectMapper objectMapper;
+    private SerializedOrderCache cache;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        cache = new SerializedOrderCache(objectMapper, true, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.clear();
+    }
+
+    @Test
+    void encode_shouldCacheTerminalOrders() throws Exception {
+        Order order = createTestOrder("order-1", OrderStatus.COMPLETED);
+
+        String first = readAndRelease(cache.encode(order));
+        String second = readAndRelease(cache.encode(order));
+
+        assertEquals(objectMapper.writeValueAsString(order), first);
+        assertEquals(first, second);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void encode_shouldNotCacheMutableOrders() {
+        Order order = createTestOrder("order-1", OrderStatus.PROCESSING);
+
+        readAndRelease(cache.encode(order));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void encode_shouldReencode_whenOrderChangedInPlace() {
+        Order order = createTestOrder("order-1", OrderStatus.COMPLETED);
+        readAndRelease(cache.encode(order));
+
+        order.setStatus(OrderStatus.FAILED);
+        order.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+
+        assertTrue(readAndRelease(cache.encode(order)).contains("\"FAILED\""));
+    }
+
+    @Test
+    void encode_shouldNotCache_whenOrderChangesWhileSerializing() {
+        Order order = createTestOrder("order-1", OrderStatus.COMPLETED);
+        ObjectMapper racingMapper = new ObjectMapper() {
+            @Override
+            public void writeValue(OutputStream out, Object value) throws IOException {
+                super.writeValue(out, value);
+                // an update lands after the bytes were written but before the entry is published
+                order.setStatus(OrderStatus.FAILED);
+                order.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+            }
+        };
+        racingMapper.findAndRegisterModules();
+        SerializedOrderCache racingCache = new SerializedOrderCache(racingMapper, true, 100);
+
+        assertTrue(readAndRelease(racingCache.encode(order)).contains("\"COMPLETED\""));
+
+        assertEquals(0, racingCache.size());
+        racingCache.clear();
+    }
+
+    @Test
+    void repositoryUpdateStatus_shouldInvalidateEntry() {
+        InMemoryOrderRepository repository = new InMemoryOrderRepository();
+        ReflectionTestUtils.setField(repository, "orderCache", cache);
+        Order order = createTestOrder("order-1", OrderStatus.COMPLETED);
+        repository.save(order).block();
+        readAndRelease(cache.encode(order));
+
+        repository.updateStatus("order-1", OrderStatus.FAILED).block();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void cachedBytes_shouldOutliveInvalidation_whileInFlight() {
+        Order order = createTestOrder("order-1", OrderStatus.COMPLETED);
+        readAndRelease(cache.encode(order));
+        DataBuffer inFlight = cache.encode(order);
+
+        cache.invalidate("order-1");
+
+        assertTrue(readAndRelease(inFlight).contains("\"order-1\""));
+    }
+
+    @Test
+    void concurrentEncodeAndInvalidate_shouldOnlyServeBytesOfRequestedOrder() throws Exception {
+        int orderCount = 16;
+        List<Order> orders = IntStream.range(0, orderCount)
+                .mapToObj(i -> createTestOrder("order-" + i, OrderStatus.COMPLETED))
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int worker = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        Order order = orders.get((i + worker) % orderCount);
+                        if (worker % 2 == 0 && i % 3 == 0) {
+                            cache.invalidate(order.getId());
+                            continue;
+                        }
+                        Order decoded = decode(readAndRelease(cache.encode(order)));
+                        assertEquals(order.getId(), decoded.getId());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Order decode(String json) {
+        try {
+            return objectMapper.readValue(json, Order.class);
+        } catch (Exception e) {
+            throw new AssertionError("Corrupt cached JSON: " + json, e);
+        }
+    }
+
+    private String readAndRelease(DataBuffer buffer) {
+        try {
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private Order createTestOrder(String id, OrderStatus status) {
+        return Order.builder()
+                .id(id)
+                .customerId("C001")
+                .productName("Widget")
+                .quantity(5)
+                .totalAmount(99.99)
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
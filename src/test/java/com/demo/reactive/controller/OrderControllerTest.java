@@ -1,31 +1,67 @@
 package com.demo.reactive.controller;
 
+import com.demo.reactive.cache.SerializedOrderCache;
+import com.demo.reactive.config.ClusterProperties;
 import com.demo.reactive.model.Order;
 import com.demo.reactive.model.OrderStatus;
 import com.demo.reactive.service.OrderService;
+import com.demo.reactive.sharding.PeerAuthenticator;
+import com.demo.reactive.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(OrderController.class)
+@Import({SerializedOrderCache.class, PeerAuthenticator.class})
+@EnableConfigurationProperties(ClusterProperties.class)
+@TestPropertySource(properties = "cluster.secret=test-secret")
 class OrderControllerTest {
 
+    private static final String PEER = "http://localhost:8081";
+    private static final String RESTORE_BODY = """
+            {"customerId": "C001", "productName": "Widget", "quantity": 5, "totalAmount": 99.99}
+            """;
+
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private PeerAuthenticator peerAuthenticator;
+
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        when(shardRouter.isLocal(anyString())).thenReturn(true);
+        when(shardRouter.findAllRemote()).thenReturn(Flux.empty());
+    }
+
     @Test
     void createOrder_shouldReturnCreatedOrder() {
         Order order = createTestOrder("order-1");
@@ -87,6 +123,122 @@ class OrderControllerTest {
                 .hasSize(2);
     }
 
+    @Test
+    void getOrderById_shouldForwardToOwner_whenOwnedByAnotherNode() {
+        Order order = createTestOrder("order-9");
+        when(shardRouter.isLocal("order-9")).thenReturn(false);
+        when(shardRouter.forwardGet("order-9")).thenReturn(Mono.just(order));
+
+        webTestClient.get()
+                .uri("/api/orders/order-9")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("order-9");
+
+        verify(orderService, never()).findById(anyString());
+    }
+
+    @Test
+    void createOrder_shouldForwardToOwner_whenGeneratedIdOwnedByAnotherNode() {
+        Order order = createTestOrder("order-7");
+        when(shardRouter.isLocal(anyString())).thenReturn(false);
+        when(shardRouter.forwardCreate(any(Order.class))).thenReturn(Mono.just(order));
+
+        webTestClient.post()
+                .uri("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    {
+                        "customerId": "C001",
+                        "productName": "Widget",
+                        "quantity": 5,
+                        "totalAmount": 99.99
+                    }
+                    """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("order-7");
+
+        verify(orderService, never()).createOrder(any(Order.class));
+    }
+
+    @Test
+    void getAllOrders_shouldServeLocalShardOnly_whenForwarded() {
+        when(orderService.findAll()).thenReturn(Flux.just(createTestOrder("order-1")));
+
+        webTestClient.get()
+                .uri("/api/orders")
+                .headers(headers -> signAsPeer(headers, HttpMethod.GET, "/api/orders", ""))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Order.class)
+                .hasSize(1);
+
+        verify(shardRouter, never()).findAllRemote();
+    }
+
+    @Test
+    void streamOrders_shouldEmitServerSentEvents() {
+        when(orderService.findAll()).thenReturn(Flux.just(createTestOrder("order-1")));
+
+        webTestClient.get()
+                .uri("/api/orders/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Order.class)
+                .getResponseBody()
+                .as(StepVerifier::create)
+                .expectNextMatches(order -> order.getId().equals("order-1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void forwardedRequest_shouldBeRejected_whenUnsigned() {
+        webTestClient.get()
+                .uri("/api/orders")
+                .header(ShardRouter.FORWARDED_HEADER, PEER)
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        verify(orderService, never()).findAll();
+    }
+
+    @Test
+    void restoreOrder_shouldBeRejected_whenBodyDiffersFromSignedBody() {
+        webTestClient.put()
+                .uri("/api/orders/order-3")
+                .headers(headers -> signAsPeer(headers, HttpMethod.PUT, "/api/orders/order-3", RESTORE_BODY))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(RESTORE_BODY.replace("99.99", "0.01"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        verify(orderService, never()).restoreOrder(any(Order.class));
+    }
+
+    @Test
+    void restoreOrder_shouldBeRejected_whenIdNotOwnedHere() {
+        when(shardRouter.isLocal("order-3")).thenReturn(false);
+
+        webTestClient.put()
+                .uri("/api/orders/order-3")
+                .headers(headers -> signAsPeer(headers, HttpMethod.PUT, "/api/orders/order-3", RESTORE_BODY))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(RESTORE_BODY)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        verify(orderService, never()).restoreOrder(any(Order.class));
+    }
+
+    private void signAsPeer(HttpHeaders headers, HttpMethod method, String path, String body) {
+        headers.set(ShardRouter.FORWARDED_HEADER, PEER);
+        peerAuthenticator.sign(headers, method, URI.create(path), PEER, body.getBytes(StandardCharsets.UTF_8));
+    }
+
     private Order createTestOrder(String id) {
         return Order.builder()
                 .id(id)
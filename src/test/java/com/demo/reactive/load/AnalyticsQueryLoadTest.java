@@ -0,0 +1,112 @@
+package com.demo.reactive.load;
+
+import com.demo.reactive.analytics.OrderColumnStore;
+import com.demo.reactive.analytics.OrderQuery;
+import com.demo.reactive.analytics.ParallelQueryExecutor;
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times representative {@link OrderQuery} shapes over a 10M-row column store and checks each median
+ * stays under the latency target. Writes {@code target/load-reports/analytics-query.json}. Run with
+ * {@code mvn test -Pload}; override with e.g. {@code -Dload.analytics.rows=20000000
+ * -Dload.analytics.targetMillis=100}.
+ */
+@Tag("load")
+class AnalyticsQueryLoadTest {
+
+    private static final int ROWS = Integer.getInteger("load.analytics.rows", 10_000_000);
+    private static final long TARGET_MILLIS = Long.getLong("load.analytics.targetMillis", 250);
+    private static final int WARM_UP_RUNS = 3;
+    private static final int MEASURED_RUNS = 10;
+
+    private static final String[] PRODUCTS = {"Widget", "Gadget", "Gizmo", "Doohickey"};
+
+    @Test
+    void queriesShouldMeetLatencyTarget() throws IOException {
+        OrderColumnStore store = populate();
+        ParallelQueryExecutor executor = new ParallelQueryExecutor(ForkJoinPool.commonPool());
+        Map<String, OrderQuery> queries = new LinkedHashMap<>();
+        queries.put("sum", OrderQuery.builder().build());
+        queries.put("completed-sum-by-product", OrderQuery.builder()
+                .status(OrderStatus.COMPLETED)
+                .groupBy(OrderQuery.GroupBy.PRODUCT)
+                .build());
+        queries.put("avg-by-customer", OrderQuery.builder()
+                .groupBy(OrderQuery.GroupBy.CUSTOMER)
+                .aggregation(OrderQuery.Aggregation.AVG)
+                .build());
+        queries.put("p99-by-product", OrderQuery.builder()
+                .groupBy(OrderQuery.GroupBy.PRODUCT)
+                .aggregation(OrderQuery.Aggregation.PERCENTILE)
+                .percentile(99)
+                .build());
+        queries.put("p50-last-day", OrderQuery.builder()
+                .from(LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(ROWS - 86_400L))
+                .aggregation(OrderQuery.Aggregation.PERCENTILE)
+                .percentile(50)
+                .build());
+
+        Map<String, Map<String, Double>> latencies = new LinkedHashMap<>();
+        queries.forEach((name, query) -> latencies.put(name, time(executor, store, query)));
+        LoadReports.write(LoadReports.DIRECTORY, "analytics-query",
+                new Report(Instant.now(), LoadReports.environment(), ROWS, TARGET_MILLIS, latencies));
+
+        latencies.forEach((name, millis) -> assertTrue(millis.get("p50") < TARGET_MILLIS,
+                name + " took " + millis + " ms, target " + TARGET_MILLIS + " ms"));
+    }
+
+    private static OrderColumnStore populate() {
+        OrderColumnStore store = new OrderColumnStore();
+        OrderStatus[] statuses = OrderStatus.values();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Order order = new Order();
+        for (int i = 0; i < ROWS; i++) {
+            order.setId(Integer.toString(i, 36));
+            order.setCustomerId("C" + (i % 1_000));
+            order.setProductName(PRODUCTS[i % PRODUCTS.length]);
+            order.setQuantity(1 + i % 5);
+            order.setTotalAmount(10.0 + (i * 7919L) % 990);
+            order.setStatus(statuses[i % statuses.length]);
+            order.setCreatedAt(base.plusSeconds(i));
+            store.upsert(order);
+        }
+        return store;
+    }
+
+    private static Map<String, Double> time(ParallelQueryExecutor executor, OrderColumnStore store, OrderQuery query) {
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            assertFalse(executor.execute(store, query).isEmpty());
+        }
+        double[] millis = new double[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            executor.execute(store, query);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        Map<String, Double> result = new LinkedHashMap<>();
+        result.put("p50", millis[MEASURED_RUNS / 2]);
+        result.put("max", millis[MEASURED_RUNS - 1]);
+        return result;
+    }
+
+    record Report(Instant startedAt,
+                  Map<String, Object> environment,
+                  int rows,
+                  long targetMillis,
+                  Map<String, Map<String, Double>> latencyMillis) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.demo.reactive.load;
+
+import com.demo.reactive.ReactiveDemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots full application instances on localhost for integration and load tests. Every instance runs
+ * without the Google Cloud Pub/Sub client; callers add the settings specific to their scenario.
+ */
+public final class AppInstances {
+
+    /**
+     * Leaves the orders subscription unset, so no subscriber is started.
+     */
+    public static final String NO_SUBSCRIBER = "--pubsub.subscription.orders=";
+    public static final String NO_RETENTION = "--retention.enabled=false";
+    public static final String QUIET = "--logging.level.com.demo.reactive=WARN";
+
+    private AppInstances() {
+    }
+
+    public static ConfigurableApplicationContext start(int port, String... args) {
+        List<String> all = new ArrayList<>();
+        all.add("--server.port=" + port);
+        all.add("--spring.cloud.gcp.pubsub.enabled=false");
+        all.addAll(List.of(args));
+        return new SpringApplicationBuilder(ReactiveDemoApplication.class).run(all.toArray(String[]::new));
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.demo.reactive.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes load-test results as JSON under {@code target/load-reports} so runs can be compared
+ * across machines and commits instead of read off the console.
+ */
+public final class LoadReports {
+
+    public static final Path DIRECTORY = Path.of("target", "load-reports");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadReports() {
+    }
+
+    public static Path write(Path directory, String name, Object report) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(name + ".json");
+        MAPPER.writeValue(file.toFile(), report);
+        return file;
+    }
+
+    public static Map<String, Object> environment() {
+        Runtime runtime = Runtime.getRuntime();
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("java", System.getProperty("java.version"));
+        environment.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version"));
+        environment.put("cpus", runtime.availableProcessors());
+        environment.put("maxHeapBytes", runtime.maxMemory());
+        return environment;
+    }
+}
@@ -0,0 +1,187 @@
+package com.demo.reactive.load;
+
+import com.demo.reactive.messaging.EmbeddedPubSub;
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives {@code POST /api/orders} at a fixed target rate against any running instance, then watches
+ * the created orders until they settle and reports create-to-complete lag from each order's own
+ * {@code createdAt}/{@code updatedAt}. Request payloads depend only on the sequence number, which is
+ * also sent as {@link EmbeddedPubSub#SEQUENCE_HEADER} so the embedded stand-in keys its faults on it.
+ * Two runs with the same {@link Settings} therefore send identical traffic and see identical faults.
+ */
+@Slf4j
+public class OrderLoadGenerator {
+
+    private static final String[] PRODUCTS = {"Widget", "Gadget", "Gizmo", "Doohickey"};
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+    private final WebClient client;
+
+    public OrderLoadGenerator(WebClient client) {
+        this.client = client;
+    }
+
+    public record Settings(int targetRps, Duration duration, int maxInFlight, Duration settleTime, Duration drainTimeout) {
+    }
+
+    public record Report(Instant startedAt,
+                         Settings settings,
+                         Map<String, Object> environment,
+                         long sent,
+                         long accepted,
+                         long rejected,
+                         long missedTicks,
+                         double achievedRps,
+                         long completed,
+                         double completedPerSecond,
+                         Map<String, Double> lagMillis,
+                         Map<String, Object> extra) {
+
+        public Report withExtra(Map<String, Object> values) {
+            return new Report(startedAt, settings, environment, sent, accepted, rejected, missedTicks,
+                    achievedRps, completed, completedPerSecond, lagMillis, values);
+        }
+
+        public Path write(Path directory, String name) throws IOException {
+            return LoadReports.write(directory, name, this);
+        }
+    }
+
+    public Report run(Settings settings) {
+        Instant startedAt = Instant.now();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicLong sent = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong missed = new AtomicLong();
+        long total = settings.targetRps() * settings.duration().toSeconds();
+
+        long sendStart = System.nanoTime();
+        Flux.interval(Duration.ofNanos(1_000_000_000L / settings.targetRps()))
+                .take(total)
+                .onBackpressureDrop(tick -> missed.incrementAndGet())
+                .flatMap(seq -> {
+                    sent.incrementAndGet();
+                    return client.post()
+                            .uri("/api/orders")
+                            .header(EmbeddedPubSub.SEQUENCE_HEADER, Long.toString(seq))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(request(seq))
+                            .retrieve()
+                            .bodyToMono(Order.class)
+                            .doOnNext(order -> ids.add(order.getId()))
+                            .onErrorResume(e -> {
+                                rejected.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, settings.maxInFlight())
+                .then()
+                .block(settings.duration().plus(settings.drainTimeout()));
+        double sendSeconds = (System.nanoTime() - sendStart) / 1e9;
+
+        List<Order> settled = awaitSettled(ids, settings);
+        List<Order> completed = settled.stream()
+                .filter(o -> o.getStatus() == OrderStatus.COMPLETED && o.getUpdatedAt() != null)
+                .toList();
+
+        return new Report(startedAt, settings, LoadReports.environment(), sent.get(), ids.size(), rejected.get(), missed.get(),
+                ids.size() / sendSeconds, completed.size(), completedPerSecond(completed), lag(completed), Map.of());
+    }
+
+    private List<Order> awaitSettled(Set<String> ids, Settings settings) {
+        long deadline = System.nanoTime() + settings.drainTimeout().toNanos();
+        long lastProgress = System.nanoTime();
+        long lastSettled = -1;
+        List<Order> tracked = List.of();
+        while (System.nanoTime() < deadline) {
+            tracked = client.get()
+                    .uri("/api/orders")
+                    .retrieve()
+                    .bodyToFlux(Order.class)
+                    .filter(order -> ids.contains(order.getId()))
+                    .collectList()
+                    .block(settings.drainTimeout());
+            long settled = tracked.stream()
+                    .filter(o -> o.getStatus() == OrderStatus.COMPLETED || o.getStatus() == OrderStatus.FAILED)
+                    .count();
+            if (settled == ids.size()) {
+                break;
+            }
+            if (settled != lastSettled) {
+                lastSettled = settled;
+                lastProgress = System.nanoTime();
+            } else if (System.nanoTime() - lastProgress > settings.settleTime().toNanos()) {
+                log.warn("{} of {} orders never settled", ids.size() - settled, ids.size());
+                break;
+            }
+            sleep(POLL_INTERVAL);
+        }
+        return tracked;
+    }
+
+    private static Map<String, Object> request(long seq) {
+        return Map.of(
+                "customerId", "C%03d".formatted(seq % 100),
+                "productName", PRODUCTS[(int) (seq % PRODUCTS.length)],
+                "quantity", 1 + seq % 5,
+                "totalAmount", 10.0 + seq % 90);
+    }
+
+    private static double completedPerSecond(List<Order> completed) {
+        if (completed.size() < 2) {
+            return completed.size();
+        }
+        LocalDateTime first = Collections.min(completed.stream().map(Order::getCreatedAt).toList());
+        LocalDateTime last = Collections.max(completed.stream().map(Order::getUpdatedAt).toList());
+        double seconds = Duration.between(first, last).toNanos() / 1e9;
+        return seconds > 0 ? completed.size() / seconds : completed.size();
+    }
+
+    private static Map<String, Double> lag(List<Order> completed) {
+        List<Double> lags = completed.stream()
+                .map(o -> Duration.between(o.getCreatedAt(), o.getUpdatedAt()).toNanos() / 1e6)
+                .sorted()
+                .toList();
+        Map<String, Double> result = new LinkedHashMap<>();
+        if (!lags.isEmpty()) {
+            result.put("p50", percentile(lags, 50));
+            result.put("p90", percentile(lags, 90));
+            result.put("p99", percentile(lags, 99));
+            result.put("max", lags.get(lags.size() - 1));
+        }
+        return result;
+    }
+
+    private static double percentile(List<Double> sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+        return sorted.get(Math.min(Math.max(rank, 1), sorted.size()) - 1);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
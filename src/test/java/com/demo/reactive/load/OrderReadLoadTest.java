@@ -0,0 +1,143 @@
+package com.demo.reactive.load;
+
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.repository.InMemoryOrderRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.LoopResources;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares read throughput and server-side allocation per request with and without the serialized
+ * order cache, over h2c with prior knowledge, and writes {@code target/load-reports/order-reads.json}.
+ * The client runs on its own event loops so only the server's {@code reactor-http-*} threads are
+ * counted. Run with {@code mvn test -Pload}.
+ */
+@Tag("load")
+class OrderReadLoadTest {
+
+    private static final int ORDERS = 1_000;
+    private static final int CONCURRENCY = 64;
+    private static final Duration WARM_UP = Duration.ofSeconds(3);
+    private static final Duration MEASURE = Duration.ofSeconds(10);
+    private static final String SERVER_THREAD_PREFIX = "reactor-http-";
+    private static final String ALLOCATION_SCOPE = "server event-loop threads (" + SERVER_THREAD_PREFIX
+            + "*); the client runs on separate load-client loops in the same JVM and is excluded";
+
+    @Test
+    void compareCachedAndUncachedReads() throws IOException {
+        Instant startedAt = Instant.now();
+        Result uncached = run(false);
+        Result cached = run(true);
+
+        LoadReports.write(LoadReports.DIRECTORY, "order-reads", new Report(startedAt, LoadReports.environment(),
+                ORDERS, CONCURRENCY, WARM_UP, MEASURE, ALLOCATION_SCOPE, uncached, cached));
+
+        assertTrue(uncached.rps() > 0 && cached.rps() > 0);
+    }
+
+    private Result run(boolean cacheEnabled) throws IOException {
+        int port = AppInstances.freePort();
+        try (ConfigurableApplicationContext context = AppInstances.start(port,
+                "--order-cache.enabled=" + cacheEnabled,
+                AppInstances.NO_RETENTION,
+                AppInstances.NO_SUBSCRIBER,
+                AppInstances.QUIET)) {
+            InMemoryOrderRepository repository = context.getBean(InMemoryOrderRepository.class);
+            for (int i = 0; i < ORDERS; i++) {
+                repository.save(completedOrder("order-" + i)).block();
+            }
+
+            LoopResources clientLoops = LoopResources.create("load-client");
+            try {
+                WebClient client = WebClient.builder()
+                        .baseUrl("http://localhost:" + port)
+                        .clientConnector(new ReactorClientHttpConnector(HttpClient.create()
+                                .runOn(clientLoops)
+                                .protocol(HttpProtocol.H2C)))
+                        .build();
+
+                hammer(client, WARM_UP);
+                long allocatedBefore = serverAllocatedBytes();
+                long requests = hammer(client, MEASURE);
+                long allocated = serverAllocatedBytes() - allocatedBefore;
+
+                return new Result(requests / (double) MEASURE.toSeconds(), allocated / (double) requests);
+            } finally {
+                clientLoops.disposeLater().block();
+            }
+        }
+    }
+
+    private long hammer(WebClient client, Duration duration) {
+        Long count = Flux.range(0, Integer.MAX_VALUE)
+                .flatMap(i -> client.get()
+                        .uri("/api/orders/{id}", "order-" + ThreadLocalRandom.current().nextInt(ORDERS))
+                        .retrieve()
+                        .bodyToMono(byte[].class), CONCURRENCY)
+                .take(duration)
+                .count()
+                .block();
+        return count != null ? count : 0;
+    }
+
+    private static long serverAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (ThreadInfo thread : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (thread == null || !thread.getThreadName().startsWith(SERVER_THREAD_PREFIX)) {
+                continue;
+            }
+            long allocated = threads.getThreadAllocatedBytes(thread.getThreadId());
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    private static Order completedOrder(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        return Order.builder()
+                .id(id)
+                .customerId("C001")
+                .productName("Widget")
+                .quantity(5)
+                .totalAmount(99.99)
+                .status(OrderStatus.COMPLETED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    record Result(double rps, double bytesPerRequest) {
+    }
+
+    record Report(Instant startedAt,
+                          Map<String, Object> environment,
+                          int orders,
+                          int concurrency,
+                          Duration warmUp,
+                          Duration measure,
+                          String allocationScope,
+                          Result cacheOff,
+                          Result cacheOn) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.demo.reactive.load;
+
+import com.demo.reactive.messaging.EmbeddedPubSub;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end publish→subscribe→BigQuery run against the embedded Pub/Sub stand-in; no emulator or
+ * network needed. Writes {@code target/load-reports/pipeline.json}. Run with {@code mvn test -Pload};
+ * override the defaults with e.g. {@code -Dload.rps=500 -Dload.duration=60 -Dload.errorRate=0.05}.
+ */
+@Tag("load")
+class PipelineLoadTest {
+
+    private static final int TARGET_RPS = Integer.getInteger("load.rps", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 20);
+    private static final String PUBLISH_LATENCY = System.getProperty("load.publishLatency", "2ms");
+    private static final String DELIVERY_LATENCY = System.getProperty("load.deliveryLatency", "5ms");
+    private static final String ERROR_RATE = System.getProperty("load.errorRate", "0.01");
+    private static final String REDELIVERY_RATE = System.getProperty("load.redeliveryRate", "0.02");
+    private static final String SEED = System.getProperty("load.seed", "42");
+
+    @Test
+    void driveCreateToCompletePipeline() throws IOException {
+        int port = AppInstances.freePort();
+        try (ConfigurableApplicationContext context = AppInstances.start(port,
+                "--pubsub.embedded.enabled=true",
+                "--pubsub.embedded.publish-latency=" + PUBLISH_LATENCY,
+                "--pubsub.embedded.delivery-latency=" + DELIVERY_LATENCY,
+                "--pubsub.embedded.error-rate=" + ERROR_RATE,
+                "--pubsub.embedded.redelivery-rate=" + REDELIVERY_RATE,
+                "--pubsub.embedded.seed=" + SEED,
+                AppInstances.NO_RETENTION,
+                AppInstances.QUIET)) {
+            OrderLoadGenerator generator = new OrderLoadGenerator(
+                    WebClient.builder().baseUrl("http://localhost:" + port).build());
+
+            OrderLoadGenerator.Report report = generator.run(new OrderLoadGenerator.Settings(
+                    TARGET_RPS, Duration.ofSeconds(DURATION_SECONDS), 256, Duration.ofSeconds(5), Duration.ofSeconds(60)));
+
+            EmbeddedPubSub.Stats stats = context.getBean(EmbeddedPubSub.class).stats();
+            Map<String, Object> pubSub = new LinkedHashMap<>();
+            pubSub.put("publishLatency", PUBLISH_LATENCY);
+            pubSub.put("deliveryLatency", DELIVERY_LATENCY);
+            pubSub.put("errorRate", ERROR_RATE);
+            pubSub.put("redeliveryRate", REDELIVERY_RATE);
+            pubSub.put("seed", SEED);
+            pubSub.put("stats", stats);
+            report = report.withExtra(Map.of("pubsub", pubSub));
+
+            report.write(LoadReports.DIRECTORY, "pipeline");
+
+            assertEquals(0, report.rejected());
+            assertTrue(report.completed() >= report.accepted() - stats.publishFailures(),
+                    "orders lost in pipeline: " + report);
+        }
+    }
+}
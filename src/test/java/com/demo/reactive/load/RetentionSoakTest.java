@@ -0,0 +1,84 @@
+package com.demo.reactive.load;
+
+import com.demo.reactive.config.RetentionProperties;
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.repository.InMemoryOrderRepository;
+import com.demo.reactive.service.BigQueryService;
+import com.demo.reactive.service.RetentionSweeper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pushes far more orders through both stores than fit in the heap budget and checks that, with the
+ * sweeper keeping up, used heap after GC stays flat between the warm-up and the final round. Every
+ * order has its own customer, the worst case for anything keyed by customer. Run with
+ * {@code mvn test -Pload}.
+ */
+@Tag("load")
+class RetentionSoakTest {
+
+    private static final int ROUNDS = 20;
+    private static final int ORDERS_PER_ROUND = 25_000;
+    private static final long ALLOWED_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    @Test
+    void heapShouldStayFlat_whenRetentionKeepsUp() {
+        InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+        BigQueryService bigQueryService = new BigQueryService();
+        RetentionProperties properties = new RetentionProperties();
+        properties.setTerminalTtl(Duration.ZERO);
+        properties.setBatchSize(ORDERS_PER_ROUND);
+        properties.setMaxSlice(Duration.ofSeconds(5));
+        RetentionSweeper sweeper = new RetentionSweeper(orderRepository, bigQueryService, properties, new SimpleMeterRegistry());
+
+        long warmHeap = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < ORDERS_PER_ROUND; i++) {
+                Order order = createTestOrder(now.minusSeconds(1));
+                orderRepository.save(order).block();
+                bigQueryService.insertOrder(order).block();
+            }
+            while (sweeper.sweepSlice(now) > 0) {
+                // drain this round
+            }
+            if (round == 4) {
+                warmHeap = usedHeapAfterGc();
+            }
+        }
+        long finalHeap = usedHeapAfterGc();
+
+        assertEquals((long) ROUNDS * ORDERS_PER_ROUND, bigQueryService.getOrderCount().block());
+        assertTrue(finalHeap - warmHeap < ALLOWED_GROWTH_BYTES,
+                "heap grew from " + warmHeap + " to " + finalHeap);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private Order createTestOrder(LocalDateTime updatedAt) {
+        return Order.builder()
+                .id(UUID.randomUUID().toString())
+                .customerId("C-" + UUID.randomUUID())
+                .productName("Widget")
+                .quantity(1)
+                .totalAmount(10.0)
+                .status(OrderStatus.COMPLETED)
+                .createdAt(updatedAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.demo.reactive.messaging;
+
+import com.demo.reactive.load.AppInstances;
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.service.BigQueryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the real publish→subscribe→BigQuery path in-process through {@link EmbeddedPubSub}.
+ */
+class EmbeddedPipelineIntegrationTest {
+
+    private ConfigurableApplicationContext context;
+    private WebTestClient client;
+
+    @BeforeEach
+    void start() throws IOException {
+        int port = AppInstances.freePort();
+        context = AppInstances.start(port, "--pubsub.embedded.enabled=true");
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void createdOrder_shouldBeCompletedAndStoredForAnalytics() throws InterruptedException {
+        Order created = client.post()
+                .uri("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    {"customerId": "C001", "productName": "Widget", "quantity": 2, "totalAmount": 40.0}
+                    """)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Order.class)
+                .returnResult()
+                .getResponseBody();
+
+        BigQueryService bigQueryService = context.getBean(BigQueryService.class);
+        await(() -> client.get()
+                .uri("/api/orders/{id}", created.getId())
+                .exchange()
+                .expectBody(Order.class)
+                .returnResult()
+                .getResponseBody()
+                .getStatus() == OrderStatus.COMPLETED);
+        await(() -> bigQueryService.getOrderCount().block() == 1L);
+
+        EmbeddedPubSub pubSub = context.getBean(EmbeddedPubSub.class);
+        await(() -> pubSub.stats().acked() == 1);
+        assertEquals(1, pubSub.stats().published());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 10s");
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.demo.reactive.messaging;
+
+import com.demo.reactive.config.EmbeddedPubSubProperties;
+import com.google.cloud.spring.pubsub.support.AcknowledgeablePubsubMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedPubSubTest {
+
+    private EmbeddedPubSubProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EmbeddedPubSubProperties();
+        properties.setEnabled(true);
+        properties.setDeliveryLatency(Duration.ZERO);
+    }
+
+    @Test
+    void publish_shouldDeliverPayloadToSubscription() throws Exception {
+        EmbeddedPubSub pubSub = create();
+
+        String messageId = pubSub.publish("orders-topic", "{\"id\":\"order-1\"}").get();
+
+        StepVerifier.create(pubSub.subscribe("orders-subscription").take(1))
+                .assertNext(msg -> {
+                    assertEquals(messageId, msg.getPubsubMessage().getMessageId());
+                    assertEquals("{\"id\":\"order-1\"}", msg.getPubsubMessage().getData().toStringUtf8());
+                    msg.ack();
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, pubSub.stats().acked());
+    }
+
+    @Test
+    void nack_shouldRedeliverMessage() throws Exception {
+        EmbeddedPubSub pubSub = create();
+        pubSub.publish("orders-topic", "payload").get();
+
+        StepVerifier.create(pubSub.subscribe("orders-subscription").take(2))
+                .assertNext(AcknowledgeablePubsubMessage::nack)
+                .assertNext(msg -> {
+                    assertTrue(msg.getAckId().endsWith("-2"));
+                    msg.ack();
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, pubSub.stats().redelivered());
+    }
+
+    @Test
+    void unsettledMessage_shouldBeRedeliveredAfterAckDeadline() throws Exception {
+        properties.setAckDeadline(Duration.ofMillis(50));
+        EmbeddedPubSub pubSub = create();
+        pubSub.publish("orders-topic", "payload").get();
+
+        StepVerifier.create(pubSub.subscribe("orders-subscription").take(2))
+                .expectNextCount(1)
+                .assertNext(AcknowledgeablePubsubMessage::ack)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, pubSub.stats().expired());
+    }
+
+    @Test
+    void publish_shouldFail_whenErrorRateIsOne() {
+        properties.setErrorRate(1.0);
+        EmbeddedPubSub pubSub = create();
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> pubSub.publish("orders-topic", "payload").get());
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(1, pubSub.stats().publishFailures());
+    }
+
+    @Test
+    void faults_shouldDependOnSeedAndMessage_notOnAckOrder() throws Exception {
+        properties.setRedeliveryRate(0.5);
+
+        Set<String> inOrder = redeliveredAckIds(false);
+        Set<String> reversed = redeliveredAckIds(true);
+
+        assertFalse(inOrder.isEmpty());
+        assertEquals(inOrder, reversed);
+    }
+
+    @Test
+    void publish_shouldRejectUnknownTopic() {
+        EmbeddedPubSub pubSub = create();
+
+        assertThrows(ExecutionException.class, () -> pubSub.publish("other-topic", "payload").get());
+    }
+
+    @Test
+    void publishFaults_shouldFollowPublisherSequence_notArrivalOrder() {
+        properties.setErrorRate(0.5);
+
+        assertEquals(failedSequences(false), failedSequences(true));
+    }
+
+    @Test
+    void publish_shouldRecordPublisherSequenceAsAttribute() throws Exception {
+        EmbeddedPubSub pubSub = create();
+        pubSub.publish("orders-topic", "payload", 7L).get();
+
+        StepVerifier.create(pubSub.subscribe("orders-subscription").take(1))
+                .assertNext(msg -> assertEquals("7",
+                        msg.getPubsubMessage().getAttributesOrThrow(EmbeddedPubSub.SEQUENCE_ATTRIBUTE)))
+                .verifyComplete();
+    }
+
+    private Set<Long> failedSequences(boolean reverseArrival) {
+        EmbeddedPubSub pubSub = create();
+        List<Long> sequences = new ArrayList<>();
+        for (long i = 0; i < 40; i++) {
+            sequences.add(i);
+        }
+        if (reverseArrival) {
+            Collections.reverse(sequences);
+        }
+        Set<Long> failed = new TreeSet<>();
+        for (long sequence : sequences) {
+            try {
+                pubSub.publish("orders-topic", "payload-" + sequence, sequence).get();
+            } catch (Exception e) {
+                failed.add(sequence);
+            }
+        }
+        assertFalse(failed.isEmpty());
+        return failed;
+    }
+
+    private Set<String> redeliveredAckIds(boolean reverseAcks) throws Exception {
+        EmbeddedPubSub pubSub = create();
+        for (int i = 0; i < 20; i++) {
+            pubSub.publish("orders-topic", "payload-" + i).get();
+        }
+        BlockingQueue<AcknowledgeablePubsubMessage> received = new LinkedBlockingQueue<>();
+        Disposable subscription = pubSub.subscribe("orders-subscription").subscribe(received::add);
+        try {
+            List<AcknowledgeablePubsubMessage> firstDeliveries = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                firstDeliveries.add(received.poll(5, TimeUnit.SECONDS));
+            }
+            if (reverseAcks) {
+                Collections.reverse(firstDeliveries);
+            }
+            firstDeliveries.forEach(AcknowledgeablePubsubMessage::ack);
+
+            Set<String> redelivered = new TreeSet<>();
+            AcknowledgeablePubsubMessage msg;
+            while ((msg = received.poll(500, TimeUnit.MILLISECONDS)) != null) {
+                redelivered.add(msg.getAckId());
+                msg.ack();
+            }
+            return redelivered;
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    private EmbeddedPubSub create() {
+        return new EmbeddedPubSub(properties, "demo-project", "orders-topic", "orders-subscription");
+    }
+}
@@ -62,6 +62,55 @@ class InMemoryOrderRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    void saveIfNewer_shouldKeepLocalCopyModifiedLater() {
+        Order order = createTestOrder("order-8");
+        Order stale = order.toBuilder().build();
+        repository.save(order).block();
+        repository.updateStatus("order-8", OrderStatus.COMPLETED).block();
+
+        StepVerifier.create(repository.saveIfNewer(stale))
+                .expectNextMatches(stored -> stored.getStatus() == OrderStatus.COMPLETED)
+                .verifyComplete();
+        StepVerifier.create(repository.findById("order-8"))
+                .expectNextMatches(found -> found.getStatus() == OrderStatus.COMPLETED)
+                .verifyComplete();
+    }
+
+    @Test
+    void saveIfNewer_shouldReplaceOlderOrMissingCopy() {
+        Order order = createTestOrder("order-9");
+        repository.save(order).block();
+        Order newer = order.toBuilder()
+                .status(OrderStatus.COMPLETED)
+                .updatedAt(LocalDateTime.now().plusSeconds(1))
+                .build();
+
+        StepVerifier.create(repository.saveIfNewer(newer))
+                .expectNext(newer)
+                .verifyComplete();
+        Order absent = createTestOrder("order-10");
+        StepVerifier.create(repository.saveIfNewer(absent))
+                .expectNext(absent)
+                .verifyComplete();
+    }
+
+    @Test
+    void removeIfUnchanged_shouldKeepOrderUpdatedSinceCopy() {
+        Order order = createTestOrder("order-7");
+        repository.save(order).block();
+        Order copy = order.toBuilder().build();
+        repository.updateStatus("order-7", OrderStatus.COMPLETED).block();
+
+        StepVerifier.create(repository.removeIfUnchanged(copy))
+                .expectNextMatches(current -> current.getStatus() == OrderStatus.COMPLETED)
+                .verifyComplete();
+        StepVerifier.create(repository.removeIfUnchanged(order.toBuilder().build()))
+                .verifyComplete();
+        StepVerifier.create(repository.findById("order-7"))
+                .verifyComplete();
+    }
+
     private Order createTestOrder(String id) {
         return Order.builder()
                 .id(id)
@@ -1,5 +1,6 @@
 package com.demo.reactive.service;
 
+import com.demo.reactive.analytics.OrderQuery;
 import com.demo.reactive.model.Order;
 import com.demo.reactive.model.OrderStatus;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 class BigQueryServiceTest {
 
@@ -51,6 +53,80 @@ class BigQueryServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void query_shouldFilterByStatusAndGroupByCustomer() {
+        insert("order-1", "C001", OrderStatus.COMPLETED, 100.0);
+        insert("order-2", "C001", OrderStatus.COMPLETED, 20.0);
+        insert("order-3", "C002", OrderStatus.COMPLETED, 30.0);
+        insert("order-4", "C002", OrderStatus.FAILED, 500.0);
+
+        OrderQuery query = OrderQuery.builder()
+                .status(OrderStatus.COMPLETED)
+                .groupBy(OrderQuery.GroupBy.CUSTOMER)
+                .build();
+
+        StepVerifier.create(bigQueryService.query(query))
+                .expectNext(Map.of("C001", 120.0, "C002", 30.0))
+                .verifyComplete();
+    }
+
+    @Test
+    void query_shouldComputeAverageAndPercentile() {
+        for (int i = 1; i <= 100; i++) {
+            insert("order-" + i, "C001", OrderStatus.COMPLETED, i);
+        }
+
+        StepVerifier.create(bigQueryService.query(OrderQuery.builder()
+                        .aggregation(OrderQuery.Aggregation.AVG)
+                        .build()))
+                .expectNext(Map.of("all", 50.5))
+                .verifyComplete();
+
+        StepVerifier.create(bigQueryService.query(OrderQuery.builder()
+                        .aggregation(OrderQuery.Aggregation.PERCENTILE)
+                        .percentile(95)
+                        .build()))
+                .expectNext(Map.of("all", 95.0))
+                .verifyComplete();
+    }
+
+    @Test
+    void query_shouldApplyTimeRangeAndCount() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 10; i++) {
+            Order order = createTestOrder("order-" + i);
+            order.setCreatedAt(base.plusHours(i));
+            bigQueryService.insertOrder(order).block();
+        }
+
+        OrderQuery query = OrderQuery.builder()
+                .from(base.plusHours(2))
+                .to(base.plusHours(5))
+                .aggregation(OrderQuery.Aggregation.COUNT)
+                .build();
+
+        StepVerifier.create(bigQueryService.query(query))
+                .expectNext(Map.of("all", 3.0))
+                .verifyComplete();
+    }
+
+    @Test
+    void query_shouldReturnEmpty_whenCustomerUnknown() {
+        insert("order-1", "C001", OrderStatus.COMPLETED, 10.0);
+
+        StepVerifier.create(bigQueryService.query(OrderQuery.builder().customerId("C999").build()))
+                .expectNext(Map.of())
+                .verifyComplete();
+    }
+
+    private void insert(String id, String customerId, OrderStatus status, double amount) {
+        Order order = createTestOrder(id);
+        order.setCustomerId(customerId);
+        order.setStatus(status);
+        order.setTotalAmount(amount);
+        bigQueryService.insertOrder(order).block();
+    }
+
     private Order createTestOrder(String id) {
         return Order.builder()
                 .id(id)
@@ -1,5 +1,7 @@
 package com.demo.reactive.service;
 
+import com.demo.reactive.config.EmbeddedPubSubProperties;
+import com.demo.reactive.messaging.EmbeddedPubSub;
 import com.demo.reactive.model.Order;
 import com.demo.reactive.model.OrderStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,9 +13,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -31,7 +35,7 @@ class OrderPublisherServiceTest {
     void setUp() {
         objectMapper = new ObjectMapper();
         objectMapper.findAndRegisterModules();
-        publisherService = new OrderPublisherService(pubSubTemplate, objectMapper, "orders-topic");
+        publisherService = new OrderPublisherService(pubSubTemplate, null, objectMapper, "orders-topic");
     }
 
     @Test
@@ -56,6 +60,23 @@ class OrderPublisherServiceTest {
                 .verify();
     }
 
+    @Test
+    void publishOrder_shouldPassSequenceFromContextToEmbeddedPubSub() {
+        EmbeddedPubSubProperties properties = new EmbeddedPubSubProperties();
+        properties.setDeliveryLatency(Duration.ZERO);
+        EmbeddedPubSub embeddedPubSub = new EmbeddedPubSub(properties, "demo-project", "orders-topic", "orders-subscription");
+        OrderPublisherService embeddedPublisher = new OrderPublisherService(null, embeddedPubSub, objectMapper, "orders-topic");
+
+        StepVerifier.create(embeddedPublisher.publishOrder(createTestOrder("order-1"))
+                        .contextWrite(context -> context.put(OrderPublisherService.SEQUENCE_CONTEXT_KEY, 5L)))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(embeddedPubSub.subscribe("orders-subscription").take(1))
+                .assertNext(msg -> assertEquals("5",
+                        msg.getPubsubMessage().getAttributesOrThrow(EmbeddedPubSub.SEQUENCE_ATTRIBUTE)))
+                .verifyComplete();
+    }
+
     private Order createTestOrder(String id) {
         return Order.builder()
                 .id(id)
@@ -3,6 +3,7 @@ package com.demo.reactive.service;
 import com.demo.reactive.model.Order;
 import com.demo.reactive.model.OrderStatus;
 import com.demo.reactive.repository.InMemoryOrderRepository;
+import com.demo.reactive.sharding.ShardRouter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.cloud.spring.pubsub.support.AcknowledgeablePubsubMessage;
 import com.google.pubsub.v1.PubsubMessage;
@@ -18,6 +19,7 @@ import reactor.test.StepVerifier;
 import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -30,6 +32,9 @@ class OrderSubscriberServiceTest {
     @Mock
     private BigQueryService bigQueryService;
 
+    @Mock
+    private ShardRouter shardRouter;
+
     @Mock
     private AcknowledgeablePubsubMessage ackMessage;
 
@@ -40,7 +45,7 @@ class OrderSubscriberServiceTest {
     void setUp() {
         objectMapper = new ObjectMapper();
         objectMapper.findAndRegisterModules();
-        subscriberService = new OrderSubscriberService(orderRepository, bigQueryService, objectMapper);
+        subscriberService = new OrderSubscriberService(orderRepository, bigQueryService, objectMapper, shardRouter);
     }
 
     @Test
@@ -52,6 +57,8 @@ class OrderSubscriberServiceTest {
                 .setData(ByteString.copyFromUtf8(orderJson))
                 .build();
         when(ackMessage.getPubsubMessage()).thenReturn(pubsubMessage);
+        when(shardRouter.isLocal("order-1")).thenReturn(true);
+        when(orderRepository.findById("order-1")).thenReturn(Mono.just(order));
 
         when(orderRepository.updateStatus(eq("order-1"), eq(OrderStatus.PROCESSING)))
                 .thenReturn(Mono.just(order));
@@ -67,6 +74,53 @@ class OrderSubscriberServiceTest {
         verify(bigQueryService).insertOrder(any(Order.class));
     }
 
+    @Test
+    void processMessage_shouldForwardStatusUpdates_whenOrderOwnedByAnotherNode() throws Exception {
+        Order order = createTestOrder("order-2");
+        String orderJson = objectMapper.writeValueAsString(order);
+
+        PubsubMessage pubsubMessage = PubsubMessage.newBuilder()
+                .setData(ByteString.copyFromUtf8(orderJson))
+                .build();
+        when(ackMessage.getPubsubMessage()).thenReturn(pubsubMessage);
+        when(shardRouter.isLocal("order-2")).thenReturn(false);
+        when(shardRouter.forwardGet("order-2")).thenReturn(Mono.just(order));
+
+        when(shardRouter.forwardUpdateStatus(eq("order-2"), any(OrderStatus.class)))
+                .thenReturn(Mono.just(order));
+        when(bigQueryService.insertOrder(any(Order.class)))
+                .thenReturn(Mono.just(true));
+
+        StepVerifier.create(subscriberService.processMessage(ackMessage))
+                .expectNextMatches(processed -> processed.getId().equals("order-2"))
+                .verifyComplete();
+
+        verify(shardRouter).forwardUpdateStatus("order-2", OrderStatus.PROCESSING);
+        verify(shardRouter).forwardUpdateStatus("order-2", OrderStatus.COMPLETED);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void processMessage_shouldLeaveSettledOrderUntouched_whenMessageIsRedelivered() throws Exception {
+        Order order = createTestOrder("order-3");
+        String orderJson = objectMapper.writeValueAsString(order);
+        order.setStatus(OrderStatus.COMPLETED);
+
+        PubsubMessage pubsubMessage = PubsubMessage.newBuilder()
+                .setData(ByteString.copyFromUtf8(orderJson))
+                .build();
+        when(ackMessage.getPubsubMessage()).thenReturn(pubsubMessage);
+        when(shardRouter.isLocal("order-3")).thenReturn(true);
+        when(orderRepository.findById("order-3")).thenReturn(Mono.just(order));
+
+        StepVerifier.create(subscriberService.processMessage(ackMessage))
+                .expectNextMatches(processed -> processed.getStatus() == OrderStatus.COMPLETED)
+                .verifyComplete();
+
+        verify(orderRepository, never()).updateStatus(anyString(), any(OrderStatus.class));
+        verifyNoInteractions(bigQueryService);
+    }
+
     @Test
     void processMessage_shouldHandleInvalidJson() {
         PubsubMessage pubsubMessage = PubsubMessage.newBuilder()
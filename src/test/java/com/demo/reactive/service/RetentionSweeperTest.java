@@ -0,0 +1,106 @@
+package com.demo.reactive.service;
+
+import com.demo.reactive.config.RetentionProperties;
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.repository.InMemoryOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetentionSweeperTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private InMemoryOrderRepository orderRepository;
+    private BigQueryService bigQueryService;
+    private RetentionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RetentionSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = new InMemoryOrderRepository();
+        bigQueryService = new BigQueryService();
+        properties = new RetentionProperties();
+        properties.setTerminalTtl(Duration.ofHours(1));
+        properties.setMaxSlice(Duration.ofSeconds(10));
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new RetentionSweeper(orderRepository, bigQueryService, properties, meterRegistry);
+    }
+
+    @Test
+    void sweepSlice_shouldExpireOnlyOldTerminalOrders() {
+        orderRepository.save(createTestOrder("old-completed", OrderStatus.COMPLETED, NOW.minusHours(2))).block();
+        orderRepository.save(createTestOrder("old-failed", OrderStatus.FAILED, NOW.minusHours(2))).block();
+        orderRepository.save(createTestOrder("old-processing", OrderStatus.PROCESSING, NOW.minusHours(2))).block();
+        orderRepository.save(createTestOrder("recent-completed", OrderStatus.COMPLETED, NOW.minusMinutes(5))).block();
+
+        assertEquals(2, sweeper.sweepSlice(NOW));
+
+        StepVerifier.create(orderRepository.findAll().map(Order::getId).collectList())
+                .expectNextMatches(ids -> ids.size() == 2
+                        && ids.contains("old-processing")
+                        && ids.contains("recent-completed"))
+                .verifyComplete();
+        assertEquals(2.0, meterRegistry.counter("retention.expired", "store", "orders").count());
+        assertTrue(meterRegistry.counter("retention.reclaimed.bytes", "store", "orders").count() > 0);
+    }
+
+    @Test
+    void sweepSlice_shouldRollUpAnalyticsBeforeDropping() {
+        Order old = createTestOrder("old", OrderStatus.COMPLETED, NOW.minusHours(2));
+        old.setTotalAmount(100.0);
+        Order recent = createTestOrder("recent", OrderStatus.COMPLETED, NOW.minusMinutes(5));
+        recent.setTotalAmount(50.0);
+        bigQueryService.insertOrder(old).block();
+        bigQueryService.insertOrder(recent).block();
+
+        assertEquals(1, sweeper.sweepSlice(NOW));
+
+        StepVerifier.create(bigQueryService.getOrderCount())
+                .expectNext(2L)
+                .verifyComplete();
+        StepVerifier.create(bigQueryService.getTotalRevenue())
+                .expectNext(150.0)
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.counter("retention.expired", "store", "analytics").count());
+        assertEquals(RetentionSweeper.ANALYTICS_ROW_BYTES,
+                meterRegistry.counter("retention.reclaimed.bytes", "store", "analytics").count());
+    }
+
+    @Test
+    void sweepSlice_shouldExamineAtMostBatchSizePerTick() {
+        properties.setBatchSize(3);
+        for (int i = 0; i < 10; i++) {
+            orderRepository.save(createTestOrder("order-" + i, OrderStatus.COMPLETED, NOW.minusHours(2))).block();
+        }
+
+        assertEquals(3, sweeper.sweepSlice(NOW));
+        assertEquals(3, sweeper.sweepSlice(NOW));
+        assertEquals(3, sweeper.sweepSlice(NOW));
+        assertEquals(1, sweeper.sweepSlice(NOW));
+
+        StepVerifier.create(orderRepository.findAll())
+                .verifyComplete();
+    }
+
+    private Order createTestOrder(String id, OrderStatus status, LocalDateTime updatedAt) {
+        return Order.builder()
+                .id(id)
+                .customerId("C001")
+                .productName("Widget")
+                .quantity(5)
+                .totalAmount(99.99)
+                .status(status)
+                .createdAt(updatedAt.minusMinutes(1))
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.demo.reactive.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    @Test
+    void nodeFor_shouldBeStableForSameKey() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 64);
+
+        assertEquals(ring.nodeFor("order-1"), ring.nodeFor("order-1"));
+        assertEquals(ring.nodeFor("order-1"), new ConsistentHashRing(NODES, 64).nodeFor("order-1"));
+    }
+
+    @Test
+    void nodeFor_shouldSpreadKeysAcrossAllNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < 3000; i++) {
+            counts.merge(ring.nodeFor(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 600, "skewed distribution: " + counts));
+    }
+
+    @Test
+    void removingNode_shouldOnlyMoveKeysOwnedByThatNode() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing after = new ConsistentHashRing(NODES.subList(0, 2), 128);
+
+        for (int i = 0; i < 1000; i++) {
+            String key = "order-" + i;
+            String owner = before.nodeFor(key);
+            if (!owner.equals("http://c:8080")) {
+                assertEquals(owner, after.nodeFor(key));
+            }
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectEmptyMembership() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 16));
+    }
+}
@@ -0,0 +1,72 @@
+package com.demo.reactive.sharding;
+
+import com.demo.reactive.config.ClusterProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeerAuthenticatorTest {
+
+    private static final URI TARGET = URI.create("http://b:8080/api/orders/o-1");
+    private static final String SENDER = "http://a:8080";
+    private static final byte[] BODY = "{\"id\":\"o-1\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void verify_shouldAcceptRequestSignedWithSameSecret() {
+        HttpHeaders headers = signed(authenticator("s3cret", clock));
+
+        assertTrue(authenticator("s3cret", clock).verify(headers, HttpMethod.PUT, TARGET, SENDER, BODY));
+    }
+
+    @Test
+    void verify_shouldRejectTamperedRequest() {
+        PeerAuthenticator authenticator = authenticator("s3cret", clock);
+        HttpHeaders headers = signed(authenticator);
+
+        assertFalse(authenticator.verify(headers, HttpMethod.PUT, TARGET, SENDER, "{}".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(authenticator.verify(headers, HttpMethod.PUT, TARGET, "http://evil:8080", BODY));
+        assertFalse(authenticator.verify(headers, HttpMethod.PUT, URI.create("http://b:8080/api/orders/o-2"), SENDER, BODY));
+        assertFalse(authenticator("other", clock).verify(headers, HttpMethod.PUT, TARGET, SENDER, BODY));
+    }
+
+    @Test
+    void verify_shouldRejectStaleTimestamp() {
+        HttpHeaders headers = signed(authenticator("s3cret", clock));
+        Clock later = Clock.offset(clock, Duration.ofMinutes(5));
+
+        assertFalse(authenticator("s3cret", later).verify(headers, HttpMethod.PUT, TARGET, SENDER, BODY));
+    }
+
+    @Test
+    void withoutSecret_shouldRefuseToSignAndVerifyNothing() {
+        PeerAuthenticator authenticator = authenticator(null, clock);
+        HttpHeaders headers = signed(authenticator("s3cret", clock));
+
+        assertFalse(authenticator.isEnabled());
+        assertThrows(IllegalStateException.class, () -> signed(authenticator));
+        assertFalse(authenticator.verify(headers, HttpMethod.PUT, TARGET, SENDER, BODY));
+    }
+
+    private HttpHeaders signed(PeerAuthenticator authenticator) {
+        HttpHeaders headers = new HttpHeaders();
+        authenticator.sign(headers, HttpMethod.PUT, TARGET, SENDER, BODY);
+        return headers;
+    }
+
+    private PeerAuthenticator authenticator(String secret, Clock clock) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setSecret(secret);
+        return new PeerAuthenticator(properties, clock);
+    }
+}
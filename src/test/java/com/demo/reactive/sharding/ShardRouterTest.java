@@ -0,0 +1,266 @@
+package com.demo.reactive.sharding;
+
+import com.demo.reactive.config.ClusterProperties;
+import com.demo.reactive.model.Order;
+import com.demo.reactive.model.OrderStatus;
+import com.demo.reactive.repository.InMemoryOrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.DisposableServer;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    private static final String SELF = "http://self.invalid";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private InMemoryOrderRepository repository;
+    private DisposableServer peer;
+    private String peerUrl;
+    private Map<String, List<Order>> received;
+    private volatile Runnable onFirstHandoff;
+    private final AtomicInteger conflicts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryOrderRepository();
+        received = new ConcurrentHashMap<>();
+        peer = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.put("/api/orders/{id}", this::receiveHandoff))
+                .bindNow();
+        peerUrl = "http://localhost:" + peer.port();
+    }
+
+    @AfterEach
+    void tearDown() {
+        peer.disposeNow();
+    }
+
+    private Mono<Void> receiveHandoff(HttpServerRequest request, HttpServerResponse response) {
+        if (conflicts.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            return response.status(409).send().then();
+        }
+        return request.receive()
+                .aggregate()
+                .asString()
+                .doOnNext(body -> {
+                    Order order = read(body);
+                    received.computeIfAbsent(order.getId(), id -> new CopyOnWriteArrayList<>()).add(order);
+                    Runnable hook = onFirstHandoff;
+                    onFirstHandoff = null;
+                    if (hook != null) {
+                        hook.run();
+                    }
+                })
+                .then(response.status(200).send().then());
+    }
+
+    @Test
+    void constructor_shouldFail_whenSelfMissingFromMembers() {
+        ClusterProperties properties = properties(List.of("http://a:8080", "http://b:8080"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> router(properties));
+    }
+
+    @Test
+    void constructor_shouldFail_whenClusteredWithoutSecret() {
+        ClusterProperties properties = properties(List.of(SELF, "http://b:8080"));
+        properties.setSecret(null);
+
+        assertThrows(IllegalStateException.class, () -> router(properties));
+    }
+
+    @Test
+    void updateMembership_shouldRejectEmptyMembership() {
+        ShardRouter router = router(properties(List.of(SELF)));
+
+        StepVerifier.create(router.updateMembership(List.of()))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        assertEquals(List.of(SELF), router.getMembers());
+    }
+
+    @Test
+    void drain_shouldHandOffEveryOrderToRemainingMembers() {
+        ShardRouter router = router(properties(List.of(SELF, peerUrl)));
+        IntStream.range(0, 20).forEach(i -> repository.save(createTestOrder("order-" + i)).block());
+
+        StepVerifier.create(router.drain())
+                .expectNext(20L)
+                .verifyComplete();
+
+        assertEquals(List.of(peerUrl), router.getMembers());
+        assertEquals(20, received.size());
+        StepVerifier.create(repository.findAll()).verifyComplete();
+        assertFalse(router.isLocal("order-0"));
+    }
+
+    @Test
+    void drain_shouldRefuseLastMember() {
+        ShardRouter router = router(properties(List.of(SELF)));
+
+        StepVerifier.create(router.drain())
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void updateMembership_shouldApplyConcurrentChangesOneAtATime() throws Exception {
+        ShardRouter router = router(properties(List.of(SELF)));
+        IntStream.range(0, 20).forEach(i -> repository.save(createTestOrder("order-" + i)).block());
+        AtomicReference<CompletableFuture<Long>> second = new AtomicReference<>();
+        AtomicBoolean secondDoneDuringFirst = new AtomicBoolean();
+        onFirstHandoff = () -> {
+            second.set(router.updateMembership(List.of(SELF)).toFuture());
+            secondDoneDuringFirst.set(second.get().isDone());
+        };
+
+        Long moved = router.updateMembership(List.of(SELF, peerUrl)).block();
+
+        assertFalse(secondDoneDuringFirst.get(), "second change must wait for the first rebalance");
+        assertEquals(received.size(), moved.intValue());
+        assertEquals(0L, second.get().get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(SELF), router.getMembers());
+        assertEquals(0, router.getPendingHandoffs());
+    }
+
+    @Test
+    void updateMembership_shouldResendOrderUpdatedDuringHandoff() {
+        ShardRouter router = router(properties(List.of(SELF)));
+        IntStream.range(0, 50).forEach(i -> repository.save(createTestOrder("order-" + i)).block());
+        ConsistentHashRing next = new ConsistentHashRing(List.of(SELF, peerUrl), 128);
+        List<String> moving = IntStream.range(0, 50)
+                .mapToObj(i -> "order-" + i)
+                .filter(id -> next.nodeFor(id).equals(peerUrl))
+                .toList();
+        assertFalse(moving.isEmpty());
+
+        // a status update lands on the old owner after its copy was sent but before it is deleted
+        AtomicBoolean servedDuringHandoff = new AtomicBoolean();
+        onFirstHandoff = () -> received.keySet().forEach(id -> {
+            servedDuringHandoff.set(router.isLocal(id));
+            repository.updateStatus(id, OrderStatus.COMPLETED).subscribe();
+        });
+
+        StepVerifier.create(router.updateMembership(List.of(SELF, peerUrl)))
+                .expectNext((long) moving.size())
+                .verifyComplete();
+
+        assertTrue(servedDuringHandoff.get(), "old owner must keep serving during handoff");
+        assertEquals(moving.size(), received.size());
+        List<Order> updatedCopies = received.values().stream()
+                .filter(copies -> copies.size() > 1)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("updated order was not re-sent"));
+        assertEquals(OrderStatus.COMPLETED, updatedCopies.get(updatedCopies.size() - 1).getStatus());
+        for (String id : moving) {
+            assertFalse(router.isLocal(id));
+            StepVerifier.create(repository.findById(id)).verifyComplete();
+        }
+    }
+
+    @Test
+    void updateMembership_shouldRetryHandoffRejectedWithConflict() {
+        ShardRouter router = router(properties(List.of(SELF)));
+        IntStream.range(0, 20).forEach(i -> repository.save(createTestOrder("order-" + i)).block());
+        conflicts.set(2);
+
+        Long moved = router.updateMembership(List.of(SELF, peerUrl)).block();
+
+        assertTrue(moved > 0);
+        assertEquals(moved, (long) received.size());
+        assertEquals(0, router.getPendingHandoffs());
+    }
+
+    @Test
+    void failedHandoff_shouldStayPendingAndLocalUntilRetrySucceeds() {
+        ClusterProperties properties = properties(List.of(SELF));
+        properties.setHandoffRetries(0);
+        ShardRouter router = router(properties);
+        IntStream.range(0, 20).forEach(i -> repository.save(createTestOrder("order-" + i)).block());
+        conflicts.set(Integer.MAX_VALUE);
+
+        StepVerifier.create(router.updateMembership(List.of(SELF, peerUrl)))
+                .expectNext(0L)
+                .verifyComplete();
+
+        List<String> moving = IntStream.range(0, 20)
+                .mapToObj(i -> "order-" + i)
+                .filter(id -> peerUrl.equals(router.ownerOf(id)))
+                .toList();
+        assertEquals(moving.size(), router.getPendingHandoffs());
+        for (String id : moving) {
+            assertTrue(router.isLocal(id));
+            StepVerifier.create(repository.findById(id)).expectNextCount(1).verifyComplete();
+        }
+
+        conflicts.set(0);
+        StepVerifier.create(router.retryPendingHandoffs())
+                .expectNext((long) moving.size())
+                .verifyComplete();
+        assertEquals(0, router.getPendingHandoffs());
+        assertEquals(moving.size(), received.size());
+        for (String id : moving) {
+            assertFalse(router.isLocal(id));
+        }
+    }
+
+    private ShardRouter router(ClusterProperties properties) {
+        return new ShardRouter(properties, repository, WebClient.builder(),
+                new PeerAuthenticator(properties), objectMapper);
+    }
+
+    private ClusterProperties properties(List<String> nodes) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setSelf(SELF);
+        properties.setNodes(nodes);
+        properties.setSecret("test-secret");
+        return properties;
+    }
+
+    private Order read(String json) {
+        try {
+            return objectMapper.readValue(json, Order.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Order createTestOrder(String id) {
+        return Order.builder()
+                .id(id)
+                .customerId("C001")
+                .productName("Widget")
+                .quantity(5)
+                .totalAmount(99.99)
+                .status(OrderStatus.PROCESSING)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
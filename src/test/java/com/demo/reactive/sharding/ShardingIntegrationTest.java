@@ -0,0 +1,236 @@
+package com.demo.reactive.sharding;
+
+import com.demo.reactive.config.ClusterProperties;
+import com.demo.reactive.load.AppInstances;
+import com.demo.reactive.model.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots two full application instances on localhost and drives them over real HTTP.
+ */
+class ShardingIntegrationTest {
+
+    private static final int ORDER_COUNT = 20;
+    private static final String SECRET = "integration-secret";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PeerAuthenticator authenticator = new PeerAuthenticator(secretProperties());
+
+    private String urlA;
+    private String urlB;
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+    private WebTestClient clientA;
+    private WebTestClient clientB;
+
+    private int portA;
+    private int portB;
+
+    @BeforeEach
+    void allocatePorts() throws IOException {
+        portA = AppInstances.freePort();
+        portB = AppInstances.freePort();
+        urlA = "http://localhost:" + portA;
+        urlB = "http://localhost:" + portB;
+        clientA = WebTestClient.bindToServer().baseUrl(urlA).build();
+        clientB = WebTestClient.bindToServer().baseUrl(urlB).build();
+    }
+
+    @AfterEach
+    void stopCluster() {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    void ordersCreatedOnOneNode_shouldBeReadableFromAnyNode() {
+        nodeA = startNode(portA, urlA, urlA + "," + urlB);
+        nodeB = startNode(portB, urlB, urlA + "," + urlB);
+        List<Order> created = createOrders(clientA);
+
+        for (Order order : created) {
+            clientB.get()
+                    .uri("/api/orders/{id}", order.getId())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.id").isEqualTo(order.getId());
+        }
+
+        int localA = localOrders(clientA, urlB).size();
+        int localB = localOrders(clientB, urlA).size();
+        assertEquals(ORDER_COUNT, localA + localB);
+        assertTrue(localA > 0 && localB > 0, "expected orders on both shards, got " + localA + "/" + localB);
+
+        clientB.get()
+                .uri("/api/orders")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Order.class)
+                .hasSize(ORDER_COUNT);
+    }
+
+    @Test
+    void scaleOut_shouldMigrateOrdersToNewMember() {
+        nodeA = startNode(portA, urlA, urlA);
+        nodeB = startNode(portB, urlB, urlA + "," + urlB);
+        List<Order> created = createOrders(clientA);
+        assertEquals(ORDER_COUNT, localOrders(clientA, urlA).size());
+
+        putMembers(clientA, List.of(urlA, urlB))
+                .expectStatus().isOk();
+
+        int localA = localOrders(clientA, urlB).size();
+        int localB = localOrders(clientB, urlA).size();
+        assertEquals(ORDER_COUNT, localA + localB);
+        assertTrue(localB > 0, "expected some orders to move to the new member");
+        for (Order order : created) {
+            clientA.get()
+                    .uri("/api/orders/{id}", order.getId())
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+    }
+
+    @Test
+    void scaleIn_shouldDrainLeavingMemberIntoRemainingOne() {
+        nodeA = startNode(portA, urlA, urlA + "," + urlB);
+        nodeB = startNode(portB, urlB, urlA + "," + urlB);
+        List<Order> created = createOrders(clientA);
+        assertTrue(localOrders(clientB, urlA).size() > 0);
+
+        putMembers(clientA, List.of(urlA))
+                .expectStatus().isOk();
+        signedPost(clientB, "/api/cluster/drain")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.members[0]").isEqualTo(urlA)
+                .jsonPath("$.pendingHandoffs").isEqualTo(0);
+
+        assertEquals(ORDER_COUNT, localOrders(clientA, urlB).size());
+        assertEquals(0, localOrders(clientB, urlA).size());
+        for (Order order : created) {
+            clientB.get()
+                    .uri("/api/orders/{id}", order.getId())
+                    .exchange()
+                    .expectStatus().isOk();
+        }
+        signedPost(clientA, "/api/cluster/drain")
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void unsignedInternalRequests_shouldBeRejected() {
+        nodeA = startNode(portA, urlA, urlA + "," + urlB);
+        nodeB = startNode(portB, urlB, urlA + "," + urlB);
+
+        clientA.put()
+                .uri("/api/cluster/members")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(urlA))
+                .exchange()
+                .expectStatus().isUnauthorized();
+        clientA.get()
+                .uri("/api/orders")
+                .header(ShardRouter.FORWARDED_HEADER, urlB)
+                .exchange()
+                .expectStatus().isUnauthorized();
+        clientA.put()
+                .uri("/api/orders/{id}", "forged")
+                .header(ShardRouter.FORWARDED_HEADER, urlB)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                    {"customerId": "C001", "productName": "Widget", "quantity": 1, "totalAmount": 10.0}
+                    """)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private List<Order> createOrders(WebTestClient client) {
+        List<Order> created = new ArrayList<>();
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            created.add(client.post()
+                    .uri("/api/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("""
+                        {"customerId": "C%03d", "productName": "Widget", "quantity": 1, "totalAmount": 10.0}
+                        """.formatted(i))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(Order.class)
+                    .returnResult()
+                    .getResponseBody());
+        }
+        return created;
+    }
+
+    private List<Order> localOrders(WebTestClient client, String asMember) {
+        return client.get()
+                .uri("/api/orders")
+                .headers(headers -> {
+                    headers.set(ShardRouter.FORWARDED_HEADER, asMember);
+                    authenticator.sign(headers, HttpMethod.GET, URI.create("/api/orders"), asMember, new byte[0]);
+                })
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Order.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private WebTestClient.ResponseSpec putMembers(WebTestClient client, List<String> members) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(members);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return client.put()
+                .uri("/api/cluster/members")
+                .headers(headers -> authenticator.sign(headers, HttpMethod.PUT,
+                        URI.create("/api/cluster/members"), null, body))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec signedPost(WebTestClient client, String path) {
+        return client.post()
+                .uri(path)
+                .headers(headers -> authenticator.sign(headers, HttpMethod.POST, URI.create(path), null, new byte[0]))
+                .exchange();
+    }
+
+    private static ClusterProperties secretProperties() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setSecret(SECRET);
+        return properties;
+    }
+
+    private static ConfigurableApplicationContext startNode(int port, String self, String members) {
+        return AppInstances.start(port,
+                "--cluster.self=" + self,
+                "--cluster.nodes=" + members,
+                "--cluster.secret=" + SECRET,
+                AppInstances.NO_SUBSCRIBER);
+    }
+}